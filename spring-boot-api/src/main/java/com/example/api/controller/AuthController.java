@@ -2,20 +2,27 @@ package com.example.api.controller;
 
 import com.example.api.dto.AuthenticationRequest;
 import com.example.api.dto.AuthenticationResponse;
+import com.example.api.dto.RefreshTokenRequest;
 import com.example.api.dto.UserDto;
 import com.example.api.model.User;
 import com.example.api.security.JwtService;
+import com.example.api.security.TokenRevocationService;
+import com.example.api.security.VerifiedToken;
 import com.example.api.service.UserService;
+import io.jsonwebtoken.JwtException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -27,6 +34,7 @@ public class AuthController {
     private final AuthenticationManager authenticationManager;
     private final UserService userService;
     private final JwtService jwtService;
+    private final TokenRevocationService tokenRevocationService;
 
     @PostMapping("/login")
     public ResponseEntity<AuthenticationResponse> authenticate(
@@ -48,6 +56,7 @@ public class AuthController {
         
         AuthenticationResponse response = AuthenticationResponse.builder()
                 .token(jwtToken)
+                .refreshToken(jwtService.generateRefreshToken(userDetails))
                 .username(userDto.getUsername())
                 .userId(userDto.getId())
                 .email(userDto.getEmail())
@@ -77,6 +86,7 @@ public class AuthController {
         
         AuthenticationResponse response = AuthenticationResponse.builder()
                 .token(jwtToken)
+                .refreshToken(jwtService.generateRefreshToken(userDetails))
                 .username(createdUser.getUsername())
                 .userId(createdUser.getId())
                 .email(createdUser.getEmail())
@@ -84,4 +94,63 @@ public class AuthController {
         
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(
+            @Valid @RequestBody RefreshTokenRequest request
+    ) {
+        UserDetails userDetails;
+        try {
+            VerifiedToken refreshToken = jwtService.parseToken(request.getRefreshToken());
+            
+            // Refresh tokens are single use; a second exchange of the same token is rejected
+            if (!refreshToken.isRefreshToken() || !tokenRevocationService.revoke(refreshToken)) {
+                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+            }
+            
+            userDetails = userService.loadUserByUsername(refreshToken.getUsername());
+        } catch (JwtException | UsernameNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        if (!userDetails.isEnabled() || !userDetails.isAccountNonLocked()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        
+        UserDto userDto = userService.getUserByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        
+        AuthenticationResponse response = AuthenticationResponse.builder()
+                .token(jwtService.generateToken(userDetails))
+                .refreshToken(jwtService.generateRefreshToken(userDetails))
+                .username(userDto.getUsername())
+                .userId(userDto.getId())
+                .email(userDto.getEmail())
+                .build();
+        
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request
+    ) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            revokeIfValid(authHeader.substring(7));
+        }
+        if (request != null && request.getRefreshToken() != null) {
+            revokeIfValid(request.getRefreshToken());
+        }
+        
+        return ResponseEntity.noContent().build();
+    }
+
+    private void revokeIfValid(String token) {
+        try {
+            tokenRevocationService.revoke(jwtService.parseToken(token));
+        } catch (JwtException e) {
+            // Expired or forged tokens are already unusable
+        }
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.api.controller;
+
+import com.example.api.security.JwtKeyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyStore jwtKeyStore;
+
+    @Value("${jwt.jwks.max-age:1h}")
+    private Duration maxAge;
+
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJwkSet() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(maxAge).cachePublic())
+                .eTag(jwtKeyStore.getJwkSetEtag())
+                .body(jwtKeyStore.getJwkSetJson());
+    }
+}
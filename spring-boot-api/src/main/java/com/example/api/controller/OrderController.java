@@ -1,10 +1,20 @@
 package com.example.api.controller;
 
+import com.example.api.dto.BulkStatusRequest;
+import com.example.api.dto.BulkStatusResponse;
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
 import com.example.api.dto.OrderDto;
 import com.example.api.model.Order;
+import com.example.api.service.BulkOrderStatusService;
+import com.example.api.service.ExportService;
+import com.example.api.service.IdempotencyService;
 import com.example.api.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -12,6 +22,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.Instant;
 import java.util.List;
@@ -22,6 +33,9 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ExportService exportService;
+    private final IdempotencyService idempotencyService;
+    private final BulkOrderStatusService bulkOrderStatusService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -35,6 +49,30 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders(pageable));
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"orders." + format.getFileExtension() + "\"")
+                .body(out -> exportService.exportOrders(format, out));
+    }
+
+    @GetMapping("/cursor")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<OrderDto>> getOrders(@Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(orderService.getOrders(cursorRequest));
+    }
+    
+    // Orders created, updated or deleted since the watermark of the previous call
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChangePage<OrderDto>> getOrderChanges(@Valid ChangesRequest changesRequest) {
+        return ResponseEntity.ok(orderService.getOrderChanges(changesRequest));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @orderSecurity.isOrderOwner(#id)")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable Long id) {
@@ -56,6 +94,13 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getOrdersByUserId(userId, pageable));
     }
     
+    @GetMapping("/user/{userId}/cursor")
+    @PreAuthorize("hasRole('ADMIN') or @userSecurity.isCurrentUser(#userId)")
+    public ResponseEntity<CursorPage<OrderDto>> getOrdersByUserIdCursor(
+            @PathVariable Long userId, @Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(orderService.getOrdersByUserId(userId, cursorRequest));
+    }
+    
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<List<OrderDto>> getOrdersByStatus(
@@ -73,8 +118,11 @@ public class OrderController {
 
     @PostMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderDto orderDto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(orderDto));
+    public ResponseEntity<OrderDto> createOrder(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderDto orderDto) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/orders", orderDto, OrderDto.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(orderService.createOrder(orderDto)));
     }
 
     @PutMapping("/{id}")
@@ -91,6 +139,12 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateOrderStatus(id, status));
     }
 
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkStatusResponse> updateOrderStatuses(@Valid @RequestBody BulkStatusRequest request) {
+        return ResponseEntity.ok(bulkOrderStatusService.updateStatuses(request));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
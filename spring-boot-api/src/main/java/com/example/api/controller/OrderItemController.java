@@ -1,13 +1,17 @@
 package com.example.api.controller;
 
 import com.example.api.dto.OrderItemDto;
+import com.example.api.service.ExportService;
+import com.example.api.service.IdempotencyService;
 import com.example.api.service.OrderItemService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -17,6 +21,8 @@ import java.util.List;
 public class OrderItemController {
 
     private final OrderItemService orderItemService;
+    private final ExportService exportService;
+    private final IdempotencyService idempotencyService;
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -24,6 +30,17 @@ public class OrderItemController {
         return ResponseEntity.ok(orderItemService.getAllOrderItems());
     }
 
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrderItems(
+            @RequestParam(defaultValue = "NDJSON") ExportService.Format format) {
+        return ResponseEntity.ok()
+                .contentType(format.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"order-items." + format.getFileExtension() + "\"")
+                .body(out -> exportService.exportOrderItems(format, out));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or @orderSecurity.isOrderItemVisible(#id)")
     public ResponseEntity<OrderItemDto> getOrderItemById(@PathVariable Long id) {
@@ -46,8 +63,11 @@ public class OrderItemController {
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<OrderItemDto> createOrderItem(@Valid @RequestBody OrderItemDto orderItemDto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(orderItemService.createOrderItem(orderItemDto));
+    public ResponseEntity<OrderItemDto> createOrderItem(
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderItemDto orderItemDto) {
+        return idempotencyService.execute(idempotencyKey, "POST /api/order-items", orderItemDto, OrderItemDto.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(orderItemService.createOrderItem(orderItemDto)));
     }
 
     @PutMapping("/{id}")
@@ -1,5 +1,9 @@
 package com.example.api.controller;
 
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
 import com.example.api.dto.ProductDto;
 import com.example.api.service.ProductService;
 import jakarta.validation.Valid;
@@ -31,6 +35,22 @@ public class ProductController {
         return ResponseEntity.ok(productService.getAllActiveProducts(pageable));
     }
 
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> getProducts(@Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(productService.getProducts(cursorRequest));
+    }
+    
+    @GetMapping("/active/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> getActiveProducts(@Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(productService.getActiveProducts(cursorRequest));
+    }
+    
+    // Products created, updated or deleted since the watermark of the previous call
+    @GetMapping("/changes")
+    public ResponseEntity<ChangePage<ProductDto>> getProductChanges(@Valid ChangesRequest changesRequest) {
+        return ResponseEntity.ok(productService.getProductChanges(changesRequest));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductDto> getProductById(@PathVariable Long id) {
         return productService.getProductById(id)
@@ -43,17 +63,37 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsByCategory(category));
     }
     
+    @GetMapping("/category/{category}/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> getProductsByCategory(
+            @PathVariable String category, @Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(productService.getProductsByCategory(category, cursorRequest));
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<List<ProductDto>> searchProductsByName(@RequestParam String name) {
         return ResponseEntity.ok(productService.searchProductsByName(name));
     }
     
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> searchProductsByName(
+            @RequestParam String name, @Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(productService.searchProductsByName(name, cursorRequest));
+    }
+    
     @GetMapping("/price-range")
     public ResponseEntity<List<ProductDto>> getProductsByPriceRange(
             @RequestParam BigDecimal minPrice, 
             @RequestParam BigDecimal maxPrice) {
         return ResponseEntity.ok(productService.getProductsByPriceRange(minPrice, maxPrice));
     }
+    
+    @GetMapping("/price-range/cursor")
+    public ResponseEntity<CursorPage<ProductDto>> getProductsByPriceRange(
+            @RequestParam BigDecimal minPrice,
+            @RequestParam BigDecimal maxPrice,
+            @Valid CursorRequest cursorRequest) {
+        return ResponseEntity.ok(productService.getProductsByPriceRange(minPrice, maxPrice, cursorRequest));
+    }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -0,0 +1,50 @@
+package com.example.api.controller;
+
+import com.example.api.dto.SalesRollupDto;
+import com.example.api.service.SalesRollupService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports/sales")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class SalesReportController {
+
+    private final SalesRollupService salesRollupService;
+
+    @GetMapping("/daily")
+    public ResponseEntity<List<SalesRollupDto>> getDailyTotalsByStatus(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.getDailyTotalsByStatus(from, to));
+    }
+
+    @GetMapping("/status")
+    public ResponseEntity<List<SalesRollupDto>> getTotalsByStatus(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.getTotalsByStatus(from, to));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<SalesRollupDto>> getTotalsByCategory(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(salesRollupService.getTotalsByCategory(from, to));
+    }
+
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        salesRollupService.rebuild(from, to);
+        return ResponseEntity.noContent().build();
+    }
+}
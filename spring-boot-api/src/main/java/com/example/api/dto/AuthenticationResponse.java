@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 public class AuthenticationResponse {
     
     private String token;
+    private String refreshToken;
     private String username;
     private Long userId;
     private String email;
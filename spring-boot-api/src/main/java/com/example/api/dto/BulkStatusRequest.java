@@ -0,0 +1,44 @@
+package com.example.api.dto;
+
+import com.example.api.model.Order;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Selects orders either by id or by a filter on current status and creation time, never both.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusRequest {
+    
+    @NotNull(message = "Target status is required")
+    private Order.OrderStatus status;
+    
+    @Size(max = 10000, message = "At most 10000 ids per request")
+    private List<Long> ids;
+    
+    // Filter: orders currently in this status, optionally created within [createdFrom, createdTo)
+    private Order.OrderStatus currentStatus;
+    
+    private Instant createdFrom;
+    
+    private Instant createdTo;
+    
+    @JsonIgnore
+    @AssertTrue(message = "Provide either ids or currentStatus")
+    public boolean isSelectionValid() {
+        boolean byIds = ids != null && !ids.isEmpty();
+        return byIds != (currentStatus != null);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkStatusResponse {
+    
+    private String status;
+    
+    private int updated;
+    
+    // Filter requests are capped per call; repeat the request while this is true
+    private boolean hasMore;
+    
+    private List<Outcome> outcomes;
+    
+    public enum Result {
+        UPDATED, UNCHANGED, INVALID_TRANSITION, NOT_FOUND
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Outcome {
+        private Long id;
+        private Result result;
+        // Status before the request; null when the order does not exist
+        private String previousStatus;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangePage<T> {
+    
+    // Rows created or updated after the watermark, oldest change first
+    private List<T> changed;
+    
+    // Ids of rows deleted after the watermark
+    private List<Long> deleted;
+    
+    // Pass back on the next call; unchanged when there was nothing new
+    private String watermark;
+    
+    private boolean hasMore;
+}
@@ -0,0 +1,23 @@
+package com.example.api.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesRequest {
+    
+    // Opaque token from a previous ChangePage.watermark; empty to start from the beginning
+    private String watermark;
+    
+    @Builder.Default
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 1000, message = "Size must be at most 1000")
+    private int size = 100;
+}
@@ -0,0 +1,26 @@
+package com.example.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> content;
+    
+    private int size;
+    
+    private boolean hasNext;
+    
+    private String nextCursor;
+    
+    // Only set when the request asked for a total
+    private Long totalElements;
+}
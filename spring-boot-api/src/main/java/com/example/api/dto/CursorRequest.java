@@ -0,0 +1,32 @@
+package com.example.api.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Sort;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorRequest {
+    
+    // Opaque token from a previous CursorPage.nextCursor; empty for the first page
+    private String cursor;
+    
+    @Builder.Default
+    @Min(value = 1, message = "Size must be at least 1")
+    @Max(value = 100, message = "Size must be at most 100")
+    private int size = 20;
+    
+    private String sort;
+    
+    @Builder.Default
+    private Sort.Direction direction = Sort.Direction.ASC;
+    
+    // Counting is the expensive part on large tables, so totals are opt-in
+    private boolean withTotal;
+}
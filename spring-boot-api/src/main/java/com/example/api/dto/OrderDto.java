@@ -1,8 +1,11 @@
 package com.example.api.dto;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.groups.ConvertGroup;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -26,6 +29,7 @@ public class OrderDto {
     
     @NotNull(message = "Total amount is required")
     @Positive(message = "Total amount must be positive")
+    @Digits(integer = 8, fraction = 2, message = "Total amount must have at most 8 integer digits and 2 decimals")
     private BigDecimal totalAmount;
     
     private String shippingAddress;
@@ -34,5 +38,7 @@ public class OrderDto {
     
     private String paymentMethod;
     
+    @Valid
+    @ConvertGroup(to = OrderItemDto.OrderLine.class)
     private List<OrderItemDto> orderItems;
 }
@@ -1,7 +1,9 @@
 package com.example.api.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.groups.Default;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,20 +17,26 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class OrderItemDto {
     
+    // Validation group for lines nested in an OrderDto, which get their order id from the parent
+    public interface OrderLine {
+    }
+    
     private Long id;
     
     @NotNull(message = "Order ID is required")
     private Long orderId;
     
-    @NotNull(message = "Product ID is required")
+    @NotNull(message = "Product ID is required", groups = {Default.class, OrderLine.class})
     private Long productId;
     
-    @NotNull(message = "Quantity is required")
-    @Positive(message = "Quantity must be positive")
+    @NotNull(message = "Quantity is required", groups = {Default.class, OrderLine.class})
+    @Positive(message = "Quantity must be positive", groups = {Default.class, OrderLine.class})
     private Integer quantity;
     
-    @NotNull(message = "Price is required")
-    @Positive(message = "Price must be positive")
+    @NotNull(message = "Price is required", groups = {Default.class, OrderLine.class})
+    @Positive(message = "Price must be positive", groups = {Default.class, OrderLine.class})
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 integer digits and 2 decimals",
+            groups = {Default.class, OrderLine.class})
     private BigDecimal price;
     
     // Optional fields for display purposes
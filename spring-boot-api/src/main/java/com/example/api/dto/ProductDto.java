@@ -1,5 +1,6 @@
 package com.example.api.dto;
 
+import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -27,6 +28,7 @@ public class ProductDto {
     
     @NotNull(message = "Price is required")
     @Positive(message = "Price must be positive")
+    @Digits(integer = 8, fraction = 2, message = "Price must have at most 8 integer digits and 2 decimals")
     private BigDecimal price;
     
     @NotNull(message = "Quantity is required")
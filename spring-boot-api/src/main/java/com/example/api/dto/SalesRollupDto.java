@@ -0,0 +1,31 @@
+package com.example.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SalesRollupDto {
+    
+    // Only the grouping columns of the report are set
+    private LocalDate day;
+    
+    private String status;
+    
+    private String category;
+    
+    private long orderCount;
+    
+    private BigDecimal revenue;
+    
+    private long units;
+}
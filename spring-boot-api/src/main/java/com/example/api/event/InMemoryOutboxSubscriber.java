@@ -0,0 +1,31 @@
+package com.example.api.event;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps relayed events in memory so tests and local runs can assert on what was published.
+ * Enabled with {@code outbox.subscribers.in-memory.enabled=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.subscribers.in-memory.enabled", havingValue = "true")
+public class InMemoryOutboxSubscriber implements OutboxSubscriber {
+
+    private final List<OutboxEvent> events = new ArrayList<>();
+
+    @Override
+    public synchronized void handle(OutboxEvent event) {
+        events.add(event);
+    }
+
+    public synchronized List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public synchronized void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * A row of {@code outbox_events} as handed to {@link OutboxSubscriber}s. The payload is the JSON
+ * written by the service that produced the event.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    
+    public static final String ORDER = "Order";
+    public static final String PRODUCT = "Product";
+    public static final String USER = "User";
+    
+    private Long id;
+    
+    private String aggregateType;
+    
+    private Long aggregateId;
+    
+    private String eventType;
+    
+    private String payload;
+    
+    // Failed deliveries so far; a subscriber may see the same event again after a retry
+    private int attempts;
+    
+    private Instant createdAt;
+}
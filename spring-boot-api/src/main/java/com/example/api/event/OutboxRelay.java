@@ -0,0 +1,175 @@
+package com.example.api.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves events from {@code outbox_events} to the registered {@link OutboxSubscriber}s. Each run
+ * reads batches in id order while holding the {@code outbox_relay_lock} row, so only one node
+ * relays at a time and every aggregate's events are delivered in the order they were written.
+ * Delivered events are removed with one DELETE per batch; with no subscribers registered they
+ * are simply discarded. An event whose delivery throws is parked with a growing delay, and its
+ * aggregate is left out of the batches until then, so a failing aggregate cannot fill every
+ * batch and stall the others.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final RowMapper<OutboxEvent> ROW_MAPPER = (rs, rowNum) -> {
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return OutboxEvent.builder()
+                .id(rs.getLong("id"))
+                .aggregateType(rs.getString("aggregate_type"))
+                .aggregateId(rs.getLong("aggregate_id"))
+                .eventType(rs.getString("event_type"))
+                .payload(rs.getString("payload"))
+                .attempts(rs.getInt("attempts"))
+                .createdAt(createdAt != null ? createdAt.toInstant() : null)
+                .build();
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final List<OutboxSubscriber> subscribers;
+    private final int batchSize;
+    private final Duration retryDelay;
+    private final Duration maxRetryDelay;
+    private final Counter dispatched;
+    private final Counter failed;
+    private final Timer lag;
+
+    public OutboxRelay(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<OutboxSubscriber> subscribers,
+            MeterRegistry meterRegistry,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.retry-delay:1s}") Duration retryDelay,
+            @Value("${outbox.relay.max-retry-delay:5m}") Duration maxRetryDelay
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.subscribers = subscribers.orderedStream().toList();
+        this.batchSize = Math.max(1, batchSize);
+        this.retryDelay = retryDelay;
+        this.maxRetryDelay = maxRetryDelay;
+        this.dispatched = Counter.builder("outbox.events.dispatched").register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed")
+                .description("Deliveries that threw and will be retried")
+                .register(meterRegistry);
+        this.lag = Timer.builder("outbox.lag")
+                .description("Time from the event being written until it was delivered")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void relay() {
+        // Keep going while batches come back full and fully delivered
+        while (relayBatch() == batchSize) {
+            log.debug("Outbox backlog remains, relaying next batch");
+        }
+    }
+
+    /**
+     * Delivers one batch and returns the number of events removed from the outbox.
+     */
+    public int relayBatch() {
+        Integer delivered = transactionTemplate.execute(status -> {
+            List<String> lock = jdbcTemplate.queryForList(
+                    "SELECT name FROM outbox_relay_lock WHERE name = 'relay' FOR UPDATE SKIP LOCKED", String.class);
+            if (lock.isEmpty()) {
+                return 0;
+            }
+            
+            Instant now = Instant.now();
+            List<OutboxEvent> events = jdbcTemplate.query("""
+                    SELECT e.id, e.aggregate_type, e.aggregate_id, e.event_type, e.payload, e.created_at, e.attempts
+                    FROM outbox_events e
+                    WHERE NOT EXISTS (
+                        SELECT 1 FROM outbox_events p
+                        WHERE p.aggregate_type = e.aggregate_type AND p.aggregate_id = e.aggregate_id
+                          AND p.next_attempt_at > ?
+                    )
+                    ORDER BY e.id
+                    LIMIT ?
+                    """, ROW_MAPPER, Timestamp.from(now), batchSize);
+            
+            List<Long> deliveredIds = new ArrayList<>();
+            Set<String> blocked = new HashSet<>();
+            for (OutboxEvent event : events) {
+                String aggregate = event.getAggregateType() + ":" + event.getAggregateId();
+                if (blocked.contains(aggregate)) {
+                    continue;
+                }
+                if (dispatch(event)) {
+                    deliveredIds.add(event.getId());
+                } else {
+                    park(event, now);
+                    blocked.add(aggregate);
+                }
+            }
+            
+            delete(deliveredIds);
+            return deliveredIds.size();
+        });
+        return delivered != null ? delivered : 0;
+    }
+
+    private boolean dispatch(OutboxEvent event) {
+        try {
+            for (OutboxSubscriber subscriber : subscribers) {
+                subscriber.handle(event);
+            }
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Delivery of outbox event {} ({} {}) failed, holding back later events of the aggregate",
+                    event.getId(), event.getEventType(), event.getAggregateId(), e);
+            return false;
+        }
+        
+        dispatched.increment();
+        if (event.getCreatedAt() != null) {
+            lag.record(Duration.between(event.getCreatedAt(), Instant.now()));
+        }
+        return true;
+    }
+
+    // Doubles the delay with every failed attempt, up to max-retry-delay
+    private void park(OutboxEvent event, Instant now) {
+        Duration delay = retryDelay.multipliedBy(1L << Math.min(event.getAttempts(), 20));
+        if (delay.compareTo(maxRetryDelay) > 0) {
+            delay = maxRetryDelay;
+        }
+        jdbcTemplate.update("UPDATE outbox_events SET attempts = attempts + 1, next_attempt_at = ? WHERE id = ?",
+                Timestamp.from(now.plus(delay)), event.getId());
+    }
+
+    private void delete(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", ids.toArray())));
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.api.event;
+
+/**
+ * Receives relayed outbox events. Delivery is at least once and, per aggregate, in the order the
+ * events were written: if {@link #handle} throws, later events of the same aggregate are held
+ * back and the failed one is redelivered on the next relay run. Use {@link OutboxEvent#getId()}
+ * to drop duplicates.
+ */
+public interface OutboxSubscriber {
+
+    void handle(OutboxEvent event);
+}
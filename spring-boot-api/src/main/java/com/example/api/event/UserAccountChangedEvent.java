@@ -0,0 +1,21 @@
+package com.example.api.event;
+
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Published whenever an account's credentials, status or roles change, so cached
+ * security state for those usernames can be dropped once the change commits. A rename
+ * carries both the old and the new username.
+ */
+@Getter
+public class UserAccountChangedEvent {
+
+    private final Set<String> usernames;
+
+    public UserAccountChangedEvent(String... usernames) {
+        this.usernames = Set.copyOf(Arrays.asList(usernames));
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.api.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException() {
+        super("A request with this Idempotency-Key is still being processed");
+    }
+}
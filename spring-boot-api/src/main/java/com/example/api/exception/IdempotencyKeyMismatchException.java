@@ -0,0 +1,8 @@
+package com.example.api.exception;
+
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException() {
+        super("Idempotency-Key was already used with a different request body");
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.api.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+
+    public InsufficientStockException(Long productId, int requested) {
+        super(String.format("Insufficient stock for product with id: %d (requested %d)", productId, requested));
+        this.productId = productId;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.api.exception;
+
+public class WatermarkExpiredException extends RuntimeException {
+
+    public WatermarkExpiredException(String message) {
+        super(message);
+    }
+}
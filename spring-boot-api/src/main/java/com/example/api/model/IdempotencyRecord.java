@@ -0,0 +1,48 @@
+package com.example.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(name = "key_hash", length = 64)
+    private String keyHash;
+    
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+    
+    // null while the request is still executing
+    @Column(name = "status_code")
+    private Integer statusCode;
+    
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(name = "locked_at", nullable = false)
+    private Instant lockedAt;
+    
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    
+    @Column(name = "created_at", insertable = false, updatable = false)
+    private Instant createdAt;
+    
+    public boolean isCompleted() {
+        return statusCode != null;
+    }
+}
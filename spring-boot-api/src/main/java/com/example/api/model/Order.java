@@ -12,7 +12,9 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @Builder
@@ -24,7 +26,8 @@ import java.util.List;
 public class Order {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -59,7 +62,24 @@ public class Order {
     private Instant updatedAt;
     
     public enum OrderStatus {
-        PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED
+        PENDING, PROCESSING, SHIPPED, DELIVERED, CANCELLED;
+        
+        // Stock is reserved when the order is placed and leaves with the shipment, so only orders that
+        // have not shipped (and were not cancelled) give it back when they are deleted
+        public boolean holdsUnshippedStock() {
+            return this == PENDING || this == PROCESSING;
+        }
+        
+        // Statuses from which a bulk transition may move an order into this one
+        public Set<OrderStatus> allowedPredecessors() {
+            return switch (this) {
+                case PENDING -> EnumSet.noneOf(OrderStatus.class);
+                case PROCESSING -> EnumSet.of(PENDING);
+                case SHIPPED -> EnumSet.of(PROCESSING);
+                case DELIVERED -> EnumSet.of(SHIPPED);
+                case CANCELLED -> EnumSet.of(PENDING, PROCESSING);
+            };
+        }
     }
     
     // Helper method to add order items
@@ -22,7 +22,8 @@ import java.time.Instant;
 public class Product {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, length = 100)
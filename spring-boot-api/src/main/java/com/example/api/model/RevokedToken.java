@@ -0,0 +1,31 @@
+package com.example.api.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_tokens")
+public class RevokedToken {
+    
+    @Id
+    @Column(length = 64)
+    private String jti;
+    
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+    
+    @Column(name = "revoked_at", insertable = false, updatable = false)
+    private Instant revokedAt;
+}
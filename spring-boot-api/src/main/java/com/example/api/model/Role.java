@@ -23,7 +23,8 @@ import java.util.Set;
 public class Role {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "roles_seq")
+    @SequenceGenerator(name = "roles_seq", sequenceName = "roles_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false, unique = true, length = 50)
@@ -0,0 +1,52 @@
+package com.example.api.repository;
+
+import com.example.api.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys (key_hash, request_hash, locked_at, expires_at) "
+            + "VALUES (:keyHash, :requestHash, :now, :expiresAt) ON CONFLICT (key_hash) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("keyHash") String keyHash, @Param("requestHash") String requestHash,
+                       @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+    
+    /**
+     * Takes over a key whose previous holder died mid-request, or whose stored response has expired
+     * but not been purged yet.
+     */
+    @Transactional
+    @Modifying
+    @Query("update IdempotencyRecord r set r.requestHash = :requestHash, r.statusCode = null, r.responseBody = null, "
+            + "r.lockedAt = :now, r.expiresAt = :expiresAt "
+            + "where r.keyHash = :keyHash and ((r.statusCode is null and r.lockedAt < :staleBefore) or r.expiresAt <= :now)")
+    int reclaim(@Param("keyHash") String keyHash, @Param("requestHash") String requestHash,
+                @Param("now") Instant now, @Param("staleBefore") Instant staleBefore,
+                @Param("expiresAt") Instant expiresAt);
+    
+    @Modifying
+    @Query("update IdempotencyRecord r set r.statusCode = :statusCode, r.responseBody = :responseBody "
+            + "where r.keyHash = :keyHash")
+    int complete(@Param("keyHash") String keyHash, @Param("statusCode") int statusCode,
+                 @Param("responseBody") String responseBody);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.keyHash = :keyHash and r.statusCode is null")
+    int release(@Param("keyHash") String keyHash);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
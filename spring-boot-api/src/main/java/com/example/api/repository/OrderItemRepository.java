@@ -4,16 +4,27 @@ import com.example.api.model.Order;
 import com.example.api.model.OrderItem;
 import com.example.api.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     
     List<OrderItem> findByOrder(Order order);
     
+    List<OrderItem> findByOrderId(Long orderId);
+    
     List<OrderItem> findByProduct(Product product);
     
     List<OrderItem> findByOrderAndProduct(Order order, Product product);
+    
+    @Query("select oi.order.id from OrderItem oi where oi.id = :orderItemId")
+    Optional<Long> findOrderIdById(@Param("orderItemId") Long orderItemId);
+    
+    @Query("select u.username from OrderItem oi join oi.order o join o.user u where oi.id = :orderItemId")
+    Optional<String> findOwnerUsernameById(@Param("orderItemId") Long orderItemId);
 }
@@ -2,24 +2,88 @@ package com.example.api.repository;
 
 import com.example.api.model.Order;
 import com.example.api.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
-    List<Order> findByUser(User user);
+    // The entity graphs load items and their products in the same query as the orders
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    @Query("select o from Order o")
+    List<Order> findAllWithItems();
+    
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    Optional<Order> findWithItemsById(Long id);
     
-    Page<Order> findByUser(User user, Pageable pageable);
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+    
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
+    List<Order> findByUser(User user);
     
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
     List<Order> findByStatus(Order.OrderStatus status);
     
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
     List<Order> findByUserAndStatus(User user, Order.OrderStatus status);
     
+    @EntityGraph(attributePaths = {"orderItems", "orderItems.product"})
     List<Order> findByCreatedAtBetween(Instant startDate, Instant endDate);
+    
+    // Paging over ids keeps LIMIT/OFFSET in the database; the page is then fetched with findWithItemsByIdIn
+    @Query("select o.id from Order o")
+    Page<Long> findIds(Pageable pageable);
+    
+    @Query(value = "select o.id from Order o where o.user = :user",
+            countQuery = "select count(o) from Order o where o.user = :user")
+    Page<Long> findIdsByUser(@Param("user") User user, Pageable pageable);
+    
+    // Keyset scrolling; the window's orders are then fetched with findWithItemsByIdIn
+    Window<Order> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Order> findByUser(User user, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByUser(User user);
+    
+    // Rows locked by another worker are skipped, so concurrent workers never claim the same order
+    @Query(value = "SELECT id FROM orders WHERE status = 'PENDING' ORDER BY created_at, id LIMIT :limit "
+            + "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockPendingIds(@Param("limit") int limit);
+    
+    // Single-order writes lock the row before reading it, so they queue behind bulk and fulfilment updates
+    @Query(value = "SELECT id FROM orders WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("id") Long id);
+    
+    @Modifying
+    @Query("update Order o set o.status = :to, o.updatedAt = :now where o.id in :ids and o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Order.OrderStatus from,
+                     @Param("to") Order.OrderStatus to, @Param("now") Instant now);
+    
+    // Item changes bump their order's updatedAt so the order change feed picks them up
+    @Modifying
+    @Query("update Order o set o.updatedAt = :now where o.id = :id")
+    int touch(@Param("id") Long id, @Param("now") Instant now);
+    
+    // Reads the user_id column by primary key, without joining users or loading the order
+    @Query("select o.user.id from Order o where o.id = :orderId")
+    Optional<Long> findOwnerIdById(@Param("orderId") Long orderId);
+    
+    @Query("select u.username from Order o join o.user u where o.id = :orderId")
+    Optional<String> findOwnerUsernameById(@Param("orderId") Long orderId);
 }
@@ -1,12 +1,20 @@
 package com.example.api.repository;
 
 import com.example.api.model.Product;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -21,4 +29,34 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     List<Product> findByCategoryAndActiveTrue(String category);
     
     List<Product> findByNameContainingIgnoreCase(String name);
+    
+    // Keyset scrolling: each window seeks past the last (sort key, id) instead of using OFFSET
+    Window<Product> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Product> findByCategory(String category, ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Product> findByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice,
+                                       ScrollPosition position, Sort sort, Limit limit);
+    
+    Window<Product> findByNameContainingIgnoreCase(String name, ScrollPosition position, Sort sort, Limit limit);
+    
+    long countByActiveTrue();
+    
+    long countByCategory(String category);
+    
+    long countByPriceBetween(BigDecimal minPrice, BigDecimal maxPrice);
+    
+    long countByNameContainingIgnoreCase(String name);
+    
+    // Matches no row when stock is short, so concurrent reservations can never oversell
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity - :quantity, p.updatedAt = :now "
+            + "where p.id = :id and p.quantity >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
+    
+    @Modifying
+    @Query("update Product p set p.quantity = p.quantity + :quantity, p.updatedAt = :now where p.id = :id")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity, @Param("now") Instant now);
 }
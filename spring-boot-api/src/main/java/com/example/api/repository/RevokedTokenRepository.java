@@ -0,0 +1,30 @@
+package com.example.api.repository;
+
+import com.example.api.model.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, String> {
+    
+    @Query("select r.jti from RevokedToken r where r.expiresAt > :now")
+    List<String> findActiveJtis(@Param("now") Instant now);
+    
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO revoked_tokens (jti, expires_at) VALUES (:jti, :expiresAt) ON CONFLICT (jti) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("jti") String jti, @Param("expiresAt") Instant expiresAt);
+    
+    @Transactional
+    @Modifying
+    @Query("delete from RevokedToken r where r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
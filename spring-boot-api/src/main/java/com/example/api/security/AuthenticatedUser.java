@@ -0,0 +1,35 @@
+package com.example.api.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Spring Security principal that also carries the database id of the account, so it can be
+ * embedded in issued tokens and rebuilt from them without a lookup.
+ */
+@Getter
+public class AuthenticatedUser extends User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public AuthenticatedUser(Long id, String username, String password, boolean enabled,
+                             boolean accountNonExpired, boolean credentialsNonExpired,
+                             boolean accountNonLocked, Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        this.id = id;
+    }
+
+    public AuthenticatedUser copy() {
+        return new AuthenticatedUser(id, getUsername(), getPassword(), isEnabled(), isAccountNonExpired(),
+                isCredentialsNonExpired(), isAccountNonLocked(), getAuthorities());
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.api.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interns one {@link GrantedAuthority} per role name instead of allocating a new one per request.
+ */
+public final class GrantedAuthorities {
+
+    private static final ConcurrentMap<String, GrantedAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    private GrantedAuthorities() {
+    }
+
+    public static GrantedAuthority of(String roleName) {
+        return AUTHORITIES.computeIfAbsent(roleName, SimpleGrantedAuthority::new);
+    }
+}
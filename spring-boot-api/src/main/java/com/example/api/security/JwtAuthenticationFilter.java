@@ -1,20 +1,27 @@
 package com.example.api.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.function.Supplier;
 
 @Component
 @RequiredArgsConstructor
@@ -22,6 +29,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    @Value("${jwt.stateless.enabled:false}")
+    private boolean statelessEnabled;
+
+    @Value("${jwt.stateless.max-token-age:15m}")
+    private Duration maxTokenAge;
 
     @Override
     protected void doFilterInternal(
@@ -31,7 +46,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
         
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -39,26 +53,90 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         
         jwt = authHeader.substring(7);
-        username = jwtService.extractUsername(jwt);
         
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        // Verification runs only when something reads the authentication, so public
+        // routes that never look at the principal skip it entirely
+        Supplier<SecurityContext> previous = SecurityContextHolder.getDeferredContext();
+        SecurityContextHolder.setDeferredContext(SingletonSupplier.of(() -> {
+            SecurityContext existing = previous.get();
+            if (existing.getAuthentication() != null) {
+                return existing;
+            }
             
-            if (jwtService.isTokenValid(jwt, userDetails)) {
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            VerifiedTokenCache.Entry verified = resolve(jwt);
+            
+            if (verified != null) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails,
+                        verified.getUserDetails(),
                         null,
-                        userDetails.getAuthorities()
+                        verified.getAuthorities()
                 );
                 
                 authToken.setDetails(
                         new WebAuthenticationDetailsSource().buildDetails(request)
                 );
                 
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+                context.setAuthentication(authToken);
             }
-        }
+            return context;
+        }));
         
         filterChain.doFilter(request, response);
     }
+
+    private VerifiedTokenCache.Entry resolve(String jwt) {
+        VerifiedTokenCache.Entry entry = verifiedTokenCache.get(jwt);
+        if (entry == null) {
+            try {
+                entry = verify(jwt);
+            } catch (JwtException e) {
+                // Expired or forged tokens leave the request anonymous
+                return null;
+            }
+        }
+        
+        if (entry != null && tokenRevocationService.isRevoked(entry.getToken().getId())) {
+            verifiedTokenCache.invalidate(jwt);
+            return null;
+        }
+        return entry;
+    }
+
+    private VerifiedTokenCache.Entry verify(String jwt) {
+        VerifiedToken verifiedToken = jwtService.parseToken(jwt);
+        String username = verifiedToken.getUsername();
+        if (username == null || verifiedToken.isRefreshToken()) {
+            return null;
+        }
+        
+        long generation = verifiedTokenCache.generation();
+        Date trustClaimsUntil = claimsTrustedUntil(verifiedToken);
+        if (trustClaimsUntil != null) {
+            UserDetails principal = jwtService.toUserDetails(verifiedToken);
+            if (principal != null && !verifiedToken.isExpired()) {
+                return verifiedTokenCache.put(jwt, verifiedToken, principal, trustClaimsUntil, generation);
+            }
+        }
+        
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (!jwtService.isTokenValid(verifiedToken, userDetails)) {
+            return null;
+        }
+        
+        return verifiedTokenCache.put(jwt, verifiedToken, userDetails, generation);
+    }
+
+    /**
+     * In stateless mode the roles embedded in a token are trusted for {@code jwt.stateless.max-token-age}
+     * after issue; older tokens fall back to a database lookup so role changes are picked up.
+     */
+    private Date claimsTrustedUntil(VerifiedToken verifiedToken) {
+        if (!statelessEnabled || verifiedToken.getIssuedAt() == null) {
+            return null;
+        }
+        
+        Date trustedUntil = new Date(verifiedToken.getIssuedAt().getTime() + maxTokenAge.toMillis());
+        return trustedUntil.after(new Date()) ? trustedUntil : null;
+    }
 }
@@ -0,0 +1,154 @@
+package com.example.api.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.KeyStore;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.RSAPublicKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RSA signing keys addressed by key id ({@code kid}). Every key entry in the configured PKCS12
+ * keystore is published in the JWKS and accepted for verification, while only the active alias
+ * signs new tokens. Rotating means adding a new alias, publishing it, then switching the active
+ * alias; tokens signed with the previous key keep verifying until the alias is removed.
+ * Without a keystore a key pair is generated at startup, which only suits a single dev node.
+ */
+@Slf4j
+@Component
+public class JwtKeyStore {
+
+    @Value("${jwt.signing.keystore.location:}")
+    private String location;
+
+    @Value("${jwt.signing.keystore.password:}")
+    private String password;
+
+    @Value("${jwt.signing.keystore.active-alias:}")
+    private String activeAlias;
+
+    private final Map<String, SigningKey> keysById = new ConcurrentHashMap<>();
+    private volatile SigningKey activeKey;
+    private volatile String jwkSetJson;
+    private volatile String jwkSetEtag;
+
+    @PostConstruct
+    void init() {
+        try {
+            if (StringUtils.hasText(location)) {
+                loadKeyStore();
+            } else {
+                log.warn("No jwt.signing.keystore.location configured; generating an ephemeral RSA key. "
+                        + "Tokens will not survive a restart or verify on other nodes.");
+                KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                KeyPair keyPair = generator.generateKeyPair();
+                SigningKey key = new SigningKey(UUID.randomUUID().toString(), keyPair.getPublic(), keyPair.getPrivate());
+                keysById.put(key.getKid(), key);
+                activeKey = key;
+            }
+        } catch (GeneralSecurityException | IOException e) {
+            throw new IllegalStateException("Unable to initialise JWT signing keys", e);
+        }
+        publishJwkSet();
+    }
+
+    public SigningKey getActiveKey() {
+        return activeKey;
+    }
+
+    public Key findVerificationKey(String kid) {
+        SigningKey key = keysById.get(kid);
+        return key != null ? key.getPublicKey() : null;
+    }
+
+    public String getJwkSetJson() {
+        return jwkSetJson;
+    }
+
+    public String getJwkSetEtag() {
+        return jwkSetEtag;
+    }
+
+    private void loadKeyStore() throws GeneralSecurityException, IOException {
+        Resource resource = new DefaultResourceLoader().getResource(location);
+        char[] secret = password.toCharArray();
+        KeyStore keyStore = KeyStore.getInstance("PKCS12");
+        try (InputStream in = resource.getInputStream()) {
+            keyStore.load(in, secret);
+        }
+        
+        for (String alias : Collections.list(keyStore.aliases())) {
+            if (!keyStore.isKeyEntry(alias)) {
+                continue;
+            }
+            Certificate certificate = keyStore.getCertificate(alias);
+            Key privateKey = keyStore.getKey(alias, secret);
+            if (certificate != null && certificate.getPublicKey() instanceof RSAPublicKey
+                    && privateKey instanceof PrivateKey) {
+                keysById.put(alias, new SigningKey(alias, certificate.getPublicKey(), (PrivateKey) privateKey));
+            }
+        }
+        
+        if (keysById.isEmpty()) {
+            throw new IllegalStateException("Keystore " + location + " contains no RSA key entries");
+        }
+        if (StringUtils.hasText(activeAlias)) {
+            activeKey = keysById.get(activeAlias);
+        } else if (keysById.size() == 1) {
+            activeKey = keysById.values().iterator().next();
+        }
+        if (activeKey == null) {
+            throw new IllegalStateException("Set jwt.signing.keystore.active-alias to one of " + keysById.keySet());
+        }
+    }
+
+    private void publishJwkSet() {
+        List<JWK> jwks = new ArrayList<>();
+        keysById.values().forEach(key -> jwks.add(new RSAKey.Builder((RSAPublicKey) key.getPublicKey())
+                .keyID(key.getKid())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.RS256)
+                .build()));
+        
+        String json = new JWKSet(jwks).toString();
+        this.jwkSetEtag = "\"" + DigestUtils.md5DigestAsHex(json.getBytes(StandardCharsets.UTF_8)) + "\"";
+        this.jwkSetJson = json;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SigningKey {
+        private final String kid;
+        private final PublicKey publicKey;
+        private final PrivateKey privateKey;
+    }
+}
@@ -1,39 +1,87 @@
 package com.example.api.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.LocatorAdapter;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import javax.crypto.SecretKey;
 import java.security.Key;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
-    @Value("${jwt.secret}")
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_TYPE_CLAIM = "token_type";
+    public static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    private final JwtKeyStore jwtKeyStore;
+
+    // Only used to verify HS256 tokens issued before the switch to RS256
+    @Value("${jwt.secret:}")
     private String secretKey;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.refresh-expiration:604800000}")
+    private long refreshExpiration;
+
     @Value("${jwt.issuer}")
     private String issuer;
 
+    private SecretKey legacyKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        if (StringUtils.hasText(secretKey)) {
+            this.legacyKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        }
+        this.jwtParser = Jwts.parser()
+                .keyLocator(new LocatorAdapter<Key>() {
+                    @Override
+                    protected Key locate(JwsHeader header) {
+                        return verificationKey(header);
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifies the signature and parses the body once. Throws a {@link io.jsonwebtoken.JwtException}
+     * if the token is malformed, tampered with or expired.
+     */
+    public VerifiedToken parseToken(String token) {
+        return new VerifiedToken(jwtParser.parseSignedClaims(token).getPayload());
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getUsername();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(parseToken(token).getClaims());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -44,41 +92,79 @@ public class JwtService {
             Map<String, Object> extraClaims,
             UserDetails userDetails
     ) {
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof AuthenticatedUser authenticatedUser && authenticatedUser.getId() != null) {
+            claims.putIfAbsent(USER_ID_CLAIM, authenticatedUser.getId());
+        }
+        claims.putIfAbsent(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        
+        return buildToken(claims, userDetails.getUsername(), jwtExpiration);
+    }
+
+    /**
+     * Long-lived token that can only be exchanged for a new access token; the filter rejects it as a bearer token.
+     */
+    public String generateRefreshToken(UserDetails userDetails) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE);
+        return buildToken(claims, userDetails.getUsername(), refreshExpiration);
+    }
+
+    private String buildToken(Map<String, Object> claims, String subject, long ttlMillis) {
+        JwtKeyStore.SigningKey signingKey = jwtKeyStore.getActiveKey();
+        long now = System.currentTimeMillis();
         return Jwts
                 .builder()
-                .setClaims(extraClaims)
-                .setSubject(userDetails.getUsername())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .setIssuer(issuer)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .header().keyId(signingKey.getKid()).and()
+                .claims(claims)
+                .id(UUID.randomUUID().toString())
+                .subject(subject)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + ttlMillis))
+                .issuer(issuer)
+                .signWith(signingKey.getPrivateKey(), Jwts.SIG.RS256)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(VerifiedToken token, UserDetails userDetails) {
+        return userDetails.getUsername().equals(token.getUsername()) && !token.isExpired();
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    /**
+     * Rebuilds the principal from the {@code uid} and {@code roles} claims alone, or returns
+     * {@code null} if the token was issued without them.
+     */
+    public UserDetails toUserDetails(VerifiedToken token) {
+        Collection<String> roles = token.getRoles();
+        if (token.getUserId() == null || roles == null) {
+            return null;
+        }
+        
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(GrantedAuthorities::of)
+                .toList();
+        return new AuthenticatedUser(token.getUserId(), token.getUsername(), "", authorities);
     }
 
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private Key verificationKey(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (legacyKey == null) {
+                throw new JwtException("Token has no key id");
+            }
+            return legacyKey;
+        }
+        
+        Key key = jwtKeyStore.findVerificationKey(kid);
+        if (key == null) {
+            throw new JwtException("Unknown signing key id: " + kid);
+        }
+        return key;
     }
 }
@@ -0,0 +1,84 @@
+package com.example.api.security;
+
+import com.example.api.dto.OrderDto;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Remembers order lookups for the lifetime of the current HTTP request, so the
+ * {@code @PreAuthorize} check and the service call that follows do not query the same rows twice.
+ * Outside a request every lookup goes straight to the loader.
+ */
+@Component
+public class OrderLookupCache {
+
+    private static final String ATTRIBUTE = OrderLookupCache.class.getName() + ".lookups";
+
+    public Optional<OrderDto> getOrder(Long orderId, Function<Long, Optional<OrderDto>> loader) {
+        return lookup("order:" + orderId, orderId, loader);
+    }
+
+    public Optional<String> getOrderOwner(Long orderId, Function<Long, Optional<String>> loader) {
+        return lookup("owner:" + orderId, orderId, loader);
+    }
+
+    public Optional<Long> getOrderOwnerId(Long orderId, Function<Long, Optional<Long>> loader) {
+        return lookup("ownerId:" + orderId, orderId, loader);
+    }
+
+    public Optional<String> getOrderItemOwner(Long orderItemId, Function<Long, Optional<String>> loader) {
+        return lookup("item:" + orderItemId, orderItemId, loader);
+    }
+
+    /**
+     * The order loaded earlier in this request, if any.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<OrderDto> findLoadedOrder(Long orderId) {
+        Map<String, Optional<?>> lookups = lookups();
+        return lookups != null
+                ? (Optional<OrderDto>) lookups.getOrDefault("order:" + orderId, Optional.empty())
+                : Optional.empty();
+    }
+
+    /**
+     * Whether an earlier lookup in this request already proved the order exists.
+     */
+    public boolean isKnownOrder(Long orderId) {
+        Map<String, Optional<?>> lookups = lookups();
+        return lookups != null && (lookups.getOrDefault("owner:" + orderId, Optional.empty()).isPresent()
+                || lookups.getOrDefault("ownerId:" + orderId, Optional.empty()).isPresent()
+                || lookups.getOrDefault("order:" + orderId, Optional.empty()).isPresent());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Optional<T> lookup(String key, Long id, Function<Long, Optional<T>> loader) {
+        Map<String, Optional<?>> lookups = lookups();
+        if (lookups == null) {
+            return loader.apply(id);
+        }
+        return (Optional<T>) lookups.computeIfAbsent(key, k -> loader.apply(id));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Optional<?>> lookups() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        
+        Map<String, Optional<?>> lookups =
+                (Map<String, Optional<?>>) attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (lookups == null) {
+            lookups = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, lookups, RequestAttributes.SCOPE_REQUEST);
+        }
+        return lookups;
+    }
+}
@@ -1,9 +1,8 @@
 package com.example.api.security;
 
-import com.example.api.model.Order;
-import com.example.api.model.OrderItem;
 import com.example.api.repository.OrderItemRepository;
 import com.example.api.repository.OrderRepository;
+import com.example.api.service.OrderArchiveService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,30 +16,42 @@ public class OrderSecurity {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
+    private final OrderLookupCache orderLookupCache;
+    private final OrderArchiveService orderArchiveService;
 
     public boolean isOrderOwner(Long orderId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = authentication.getName();
         
-        Optional<Order> orderOpt = orderRepository.findById(orderId);
-        if (orderOpt.isEmpty()) {
-            return false;
+        // Principals that carry their id are compared on orders.user_id, read by primary key
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user && user.getId() != null) {
+            return orderLookupCache.getOrderOwnerId(orderId, this::findOwnerId)
+                    .map(user.getId()::equals)
+                    .orElse(false);
         }
         
-        Order order = orderOpt.get();
-        return order.getUser().getUsername().equals(currentUsername);
+        return orderLookupCache.getOrderOwner(orderId, this::findOwner)
+                .map(currentUsername::equals)
+                .orElse(false);
     }
     
     public boolean isOrderItemVisible(Long orderItemId) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         String currentUsername = authentication.getName();
         
-        Optional<OrderItem> orderItemOpt = orderItemRepository.findById(orderItemId);
-        if (orderItemOpt.isEmpty()) {
-            return false;
-        }
-        
-        OrderItem orderItem = orderItemOpt.get();
-        return orderItem.getOrder().getUser().getUsername().equals(currentUsername);
+        return orderLookupCache.getOrderItemOwner(orderItemId, orderItemRepository::findOwnerUsernameById)
+                .map(currentUsername::equals)
+                .orElse(false);
+    }
+    
+    // Archived orders keep their owner, so their owners can still read them
+    private Optional<Long> findOwnerId(Long orderId) {
+        return orderRepository.findOwnerIdById(orderId)
+                .or(() -> orderArchiveService.findOwnerId(orderId));
+    }
+    
+    private Optional<String> findOwner(Long orderId) {
+        return orderRepository.findOwnerUsernameById(orderId)
+                .or(() -> orderArchiveService.findOwnerUsername(orderId));
     }
 }
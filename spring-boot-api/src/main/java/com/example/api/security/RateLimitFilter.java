@@ -0,0 +1,167 @@
+package com.example.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the token-bucket limits from {@link RateLimitProperties}. Runs after
+ * {@link JwtAuthenticationFilter} so authenticated requests are also limited per username.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<CompiledRoute> routes;
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        List<CompiledRoute> compiled = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            compiled.add(new CompiledRoute(compiled.size(), route, meterRegistry));
+        }
+        this.routes = List.copyOf(compiled);
+        // Idle buckets would be full again anyway, so evicting them loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(properties.getIdleTimeout())
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        CompiledRoute route = match(request.getRequestURI().substring(request.getContextPath().length()));
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long now = System.nanoTime();
+        long waitNanos = 0;
+        
+        if (route.principalLimit != null) {
+            String username = authenticatedUsername();
+            if (username != null) {
+                waitNanos = consume(route, route.principalLimit, "p:" + username, now);
+                if (waitNanos > 0) {
+                    route.principalThrottled.increment();
+                }
+            }
+        }
+        
+        if (waitNanos == 0 && route.ipLimit != null) {
+            waitNanos = consume(route, route.ipLimit, "ip:" + request.getRemoteAddr(), now);
+            if (waitNanos > 0) {
+                route.ipThrottled.increment();
+            }
+        }
+        
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+
+    private CompiledRoute match(String path) {
+        for (CompiledRoute route : routes) {
+            if (pathMatcher.match(route.pattern, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    private String authenticatedUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private long consume(CompiledRoute route, RateLimitProperties.Limit limit, String key, long now) {
+        TokenBucket bucket = buckets.get(route.index + ":" + key,
+                k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        return bucket.tryConsume(now);
+    }
+
+    private void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", HttpStatus.TOO_MANY_REQUESTS.value());
+        body.put("message", "Too many requests, retry after " + retryAfterSeconds + " seconds");
+        body.put("timestamp", LocalDateTime.now());
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static final class CompiledRoute {
+        private final int index;
+        private final String pattern;
+        private final RateLimitProperties.Limit principalLimit;
+        private final RateLimitProperties.Limit ipLimit;
+        private final Counter principalThrottled;
+        private final Counter ipThrottled;
+
+        CompiledRoute(int index, RateLimitProperties.Route route, MeterRegistry meterRegistry) {
+            this.index = index;
+            this.pattern = route.getPattern();
+            this.principalLimit = route.getPrincipal();
+            this.ipLimit = route.getIp();
+            this.principalThrottled = throttledCounter(meterRegistry, pattern, "principal");
+            this.ipThrottled = throttledCounter(meterRegistry, pattern, "ip");
+        }
+
+        private static Counter throttledCounter(MeterRegistry meterRegistry, String pattern, String limit) {
+            return Counter.builder("http.server.requests.throttled")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("route", pattern)
+                    .tag("limit", limit)
+                    .register(meterRegistry);
+        }
+    }
+}
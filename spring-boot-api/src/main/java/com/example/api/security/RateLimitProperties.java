@@ -0,0 +1,41 @@
+package com.example.api.security;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Token-bucket limits per route pattern. The first matching route applies; a route may limit
+ * per authenticated principal, per client IP, or both.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "security.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+    private long maxTrackedKeys = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private List<Route> routes = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Route {
+        private String pattern;
+        private Limit principal;
+        private Limit ip;
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int capacity;
+        private double refillPerSecond;
+    }
+}
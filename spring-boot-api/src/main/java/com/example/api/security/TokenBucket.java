@@ -0,0 +1,37 @@
+package com.example.api.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket. Instead of a token count it stores the time at which the bucket will
+ * be full again, so taking a token is a single compare-and-set.
+ */
+final class TokenBucket {
+
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.nanosPerToken = (long) (1_000_000_000L / refillPerSecond);
+        this.burstNanos = nanosPerToken * Math.max(1, capacity);
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 on success, otherwise the nanoseconds until a token is available.
+     */
+    long tryConsume(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + nanosPerToken;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.api.security;
+
+import com.example.api.repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks revoked token ids. Lookups consult an in-memory Bloom filter first and only query
+ * {@code revoked_tokens} when the filter reports a possible match, so the common case costs no I/O.
+ * Local revocations are added to the filter directly; the full rebuild from the table runs only on
+ * a fixed interval, which is how revocations made on other nodes become visible here.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+
+    @Value("${jwt.revocation.expected-insertions:100000}")
+    private int expectedInsertions;
+
+    @Value("${jwt.revocation.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter bloomFilter;
+
+    // Local revocations a running rebuild may have read the table too early to see
+    private final Set<String> recentlyRevoked = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    void init() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return revokedTokenRepository.existsById(jti);
+    }
+
+    /**
+     * Returns {@code true} if this call revoked the token, {@code false} if it was already revoked.
+     */
+    public boolean revoke(VerifiedToken token) {
+        String jti = token.getId();
+        if (jti == null) {
+            return false;
+        }
+        
+        Date expiration = token.getExpiration();
+        Instant expiresAt = expiration != null ? expiration.toInstant() : Instant.now();
+        boolean revoked = revokedTokenRepository.insertIfAbsent(jti, expiresAt) > 0;
+        recentlyRevoked.add(jti);
+        bloomFilter.put(jti);
+        return revoked;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${jwt.revocation.refresh-interval-ms:30000}")
+    public void refresh() {
+        revokedTokenRepository.deleteExpired(Instant.now());
+        rebuild();
+    }
+
+    private synchronized void rebuild() {
+        Set<String> seenBefore = Set.copyOf(recentlyRevoked);
+        List<String> jtis = revokedTokenRepository.findActiveJtis(Instant.now());
+        BloomFilter filter = new BloomFilter(Math.max(expectedInsertions, jtis.size() * 2), falsePositiveRate);
+        jtis.forEach(filter::put);
+        this.bloomFilter = filter;
+        
+        // Re-applied after the swap so a revoke that wrote to the old filter meanwhile is not lost;
+        // only ids recorded before the query are dropped, the rest wait for the next rebuild
+        recentlyRevoked.forEach(filter::put);
+        recentlyRevoked.removeAll(seenBefore);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.api.security;
+
+import com.example.api.event.UserAccountChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-based cache of accounts loaded by {@code loadUserByUsername}. Entries are dropped as
+ * soon as a {@link UserAccountChangedEvent} for the username commits, and a load that overlapped
+ * such an event is returned but not kept, since it may have read the account before the commit.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final Cache<String, AuthenticatedUser> cache;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserDetailsCache(
+            @Value("${security.user-cache.maximum-size:10000}") long maximumSize,
+            @Value("${security.user-cache.ttl:5m}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "security.user-details");
+    }
+
+    /**
+     * Returns a fresh copy of the cached account, loading it on a miss. Callers get their own
+     * instance because authentication erases the password on the principal it returns.
+     */
+    public UserDetails get(String username, Function<String, AuthenticatedUser> loader) {
+        AuthenticatedUser user = cache.getIfPresent(username);
+        if (user == null) {
+            long started = generation.get();
+            user = loader.apply(username);
+            cache.put(username, user);
+            // Checked after the put, so an event landing either side of it still removes the entry
+            if (generation.get() != started) {
+                cache.asMap().remove(username, user);
+            }
+        }
+        return user.copy();
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        generation.incrementAndGet();
+        cache.invalidateAll(event.getUsernames());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.api.security;
+
+import io.jsonwebtoken.Claims;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * A token whose signature has been checked and whose body has been parsed exactly once.
+ * The filter and the validity checks share this instead of re-parsing the raw string.
+ */
+@Getter
+@RequiredArgsConstructor
+public final class VerifiedToken {
+
+    private final Claims claims;
+
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    public String getId() {
+        return claims.getId();
+    }
+
+    public boolean isRefreshToken() {
+        return JwtService.REFRESH_TOKEN_TYPE.equals(claims.get(JwtService.TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    public Long getUserId() {
+        Number userId = claims.get(JwtService.USER_ID_CLAIM, Number.class);
+        return userId != null ? userId.longValue() : null;
+    }
+
+    public Collection<String> getRoles() {
+        List<?> roles = claims.get(JwtService.ROLES_CLAIM, List.class);
+        return roles != null ? roles.stream().map(String::valueOf).toList() : null;
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public boolean isExpired() {
+        Date expiration = claims.getExpiration();
+        return expiration != null && expiration.before(new Date());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.api.security;
+
+import com.example.api.event.UserAccountChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified, keyed by a SHA-256 digest
+ * of the raw token. Each entry expires when the token's {@code exp} claim passes. Digests are
+ * also indexed by username so an account change drops only that user's tokens.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, Entry> cache;
+    private final Map<String, Set<String>> digestsByUsername = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                // Runs on the removing thread so the index never lags behind the cache
+                .executor(Runnable::run)
+                .removalListener((String digest, Entry entry, RemovalCause cause) -> {
+                    if (digest != null && entry != null && cause != RemovalCause.REPLACED) {
+                        unindex(entry.getToken().getUsername(), digest);
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    public Entry get(String token) {
+        return cache.getIfPresent(digest(token));
+    }
+
+    /**
+     * Read before resolving a token's account and passed back to {@code put}, so an account change
+     * that commits in between keeps the possibly stale result out of the cache.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public Entry put(String token, VerifiedToken verifiedToken, UserDetails userDetails, long generation) {
+        return put(token, verifiedToken, userDetails, verifiedToken.getExpiration(), generation);
+    }
+
+    /**
+     * Caches the entry until {@code notAfter} or the token's own expiry, whichever comes first.
+     */
+    public Entry put(String token, VerifiedToken verifiedToken, UserDetails userDetails, Date notAfter,
+                     long generation) {
+        Date expiration = verifiedToken.getExpiration();
+        if (expiration != null && notAfter != null && notAfter.before(expiration)) {
+            expiration = notAfter;
+        }
+        
+        Entry entry = new Entry(verifiedToken, userDetails, userDetails.getAuthorities(),
+                expiration != null ? expiration.getTime() : 0L);
+        if (expiration != null && verifiedToken.getUsername() != null) {
+            String digest = digest(token);
+            // Indexed after the put so an account change that removes the index in between still finds it
+            cache.put(digest, entry);
+            digestsByUsername.compute(verifiedToken.getUsername(), (username, digests) -> {
+                Set<String> indexed = digests != null ? digests : ConcurrentHashMap.newKeySet();
+                indexed.add(digest);
+                return indexed;
+            });
+            if (this.generation.get() != generation) {
+                cache.asMap().remove(digest, entry);
+            }
+        }
+        return entry;
+    }
+
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * Drops every cached token for the account so a locked or demoted user is re-resolved
+     * on the next request instead of at token expiry.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAccountChanged(UserAccountChangedEvent event) {
+        generation.incrementAndGet();
+        for (String username : event.getUsernames()) {
+            Set<String> digests = digestsByUsername.remove(username);
+            if (digests != null) {
+                cache.invalidateAll(digests);
+            }
+        }
+    }
+
+    private void unindex(String username, String digest) {
+        digestsByUsername.computeIfPresent(username, (key, digests) -> {
+            digests.remove(digest);
+            return digests.isEmpty() ? null : digests;
+        });
+    }
+
+    static String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final VerifiedToken token;
+        private final UserDetails userDetails;
+        private final Collection<? extends GrantedAuthority> authorities;
+        private final long expiresAtMillis;
+
+        long remainingMillis() {
+            return expiresAtMillis - System.currentTimeMillis();
+        }
+    }
+
+    private static class TokenExpiry implements Expiry<String, Entry> {
+
+        @Override
+        public long expireAfterCreate(String key, Entry value, long currentTime) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.remainingMillis()));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Entry value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.api.service;
+
+import com.example.api.dto.BulkStatusRequest;
+import com.example.api.dto.BulkStatusResponse;
+
+/**
+ * Moves many orders to a new status with set-based statements. Only the transitions allowed by
+ * {@link com.example.api.model.Order.OrderStatus#allowedPredecessors()} are applied; every other
+ * selected order is reported with its outcome.
+ */
+public interface BulkOrderStatusService {
+
+    BulkStatusResponse updateStatuses(BulkStatusRequest request);
+}
@@ -0,0 +1,27 @@
+package com.example.api.service;
+
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Incremental change feed over the {@code (updated_at, id)} order of a table, plus tombstones for
+ * deleted rows. Entity types are the {@link com.example.api.event.OutboxEvent} aggregate types.
+ */
+public interface ChangeFeedService {
+
+    /**
+     * Records that a row was deleted. Must be called inside the transaction that deletes it.
+     */
+    void recordDeletion(String entityType, Long id);
+
+    /**
+     * Returns the rows changed and deleted after the request's watermark, loading the changed rows
+     * with {@code loader}; rows the loader no longer finds were deleted and arrive as tombstones later.
+     */
+    <T> ChangePage<T> getChanges(String entityType, ChangesRequest request,
+                                 Function<Collection<Long>, Map<Long, T>> loader);
+}
@@ -0,0 +1,31 @@
+package com.example.api.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Streams whole tables to an output stream row by row, for bulk consumers such as
+ * reconciliation jobs. Memory use does not depend on the table size.
+ */
+public interface ExportService {
+    
+    void exportOrders(Format format, OutputStream out) throws IOException;
+    
+    void exportOrderItems(Format format, OutputStream out) throws IOException;
+    
+    void exportUsers(Format format, OutputStream out) throws IOException;
+    
+    @Getter
+    @RequiredArgsConstructor
+    enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+        
+        private final MediaType mediaType;
+        private final String fileExtension;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.api.service;
+
+/**
+ * Background fulfilment: worker threads on every node claim batches of PENDING orders and move
+ * them to PROCESSING.
+ */
+public interface FulfilmentService {
+
+    /**
+     * Claims and processes one batch in its own transaction.
+     *
+     * @return the number of orders moved to PROCESSING
+     */
+    int processNextBatch();
+}
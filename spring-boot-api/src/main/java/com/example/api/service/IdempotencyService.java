@@ -0,0 +1,18 @@
+package com.example.api.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Runs {@code action} at most once per key, scope and principal and replays the stored
+     * response for retries. Without a key the action simply runs.
+     */
+    <T> ResponseEntity<T> execute(String key, String scope, Object request, Class<T> responseType,
+                                  Supplier<ResponseEntity<T>> action);
+}
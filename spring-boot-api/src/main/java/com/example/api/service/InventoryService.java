@@ -0,0 +1,15 @@
+package com.example.api.service;
+
+import java.util.Map;
+
+/**
+ * Stock reservation against {@code products.quantity}. Both operations take product id to
+ * quantity and touch the products in ascending id order, so concurrent orders cannot deadlock.
+ * Quantities must be positive; a null or non-positive one is rejected before any product is touched.
+ */
+public interface InventoryService {
+    
+    void reserve(Map<Long, Integer> quantitiesByProductId);
+    
+    void release(Map<Long, Integer> quantitiesByProductId);
+}
@@ -0,0 +1,32 @@
+package com.example.api.service;
+
+import com.example.api.dto.OrderDto;
+
+import java.util.Optional;
+
+/**
+ * Moves DELIVERED and CANCELLED orders older than {@code orders.archive.min-age} out of the hot
+ * tables into {@code archived_orders}, and serves them back for single-order reads.
+ */
+public interface OrderArchiveService {
+
+    /**
+     * Archives one batch of closed orders in its own transaction.
+     *
+     * @return the number of orders archived
+     */
+    int archiveNextBatch();
+
+    Optional<OrderDto> findArchivedOrder(Long id);
+
+    Optional<Long> findOwnerId(Long id);
+
+    Optional<String> findOwnerUsername(Long id);
+
+    /**
+     * Deletes an archived order and takes it out of the sales rollups.
+     *
+     * @return whether an archived order with this id existed
+     */
+    boolean deleteArchivedOrder(Long id);
+}
@@ -1,5 +1,9 @@
 package com.example.api.service;
 
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
 import com.example.api.dto.OrderDto;
 import com.example.api.model.Order;
 import org.springframework.data.domain.Page;
@@ -21,6 +25,12 @@ public interface OrderService {
     
     Page<OrderDto> getOrdersByUserId(Long userId, Pageable pageable);
     
+    CursorPage<OrderDto> getOrders(CursorRequest request);
+    
+    CursorPage<OrderDto> getOrdersByUserId(Long userId, CursorRequest request);
+    
+    ChangePage<OrderDto> getOrderChanges(ChangesRequest request);
+    
     List<OrderDto> getOrdersByStatus(Order.OrderStatus status);
     
     List<OrderDto> getOrdersByUserIdAndStatus(Long userId, Order.OrderStatus status);
@@ -0,0 +1,14 @@
+package com.example.api.service;
+
+import java.util.Map;
+
+/**
+ * Writes domain events to the transactional outbox. Must be called inside the transaction that
+ * makes the change, so the event commits or rolls back with it.
+ */
+public interface OutboxService {
+
+    void publish(String aggregateType, Long aggregateId, String eventType, Object payload);
+
+    void publishAll(String aggregateType, String eventType, Map<Long, ?> payloadsByAggregateId);
+}
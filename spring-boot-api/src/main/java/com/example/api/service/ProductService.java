@@ -1,5 +1,9 @@
 package com.example.api.service;
 
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
 import com.example.api.dto.ProductDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -24,6 +28,18 @@ public interface ProductService {
     
     List<ProductDto> searchProductsByName(String name);
     
+    CursorPage<ProductDto> getProducts(CursorRequest request);
+    
+    CursorPage<ProductDto> getActiveProducts(CursorRequest request);
+    
+    CursorPage<ProductDto> getProductsByCategory(String category, CursorRequest request);
+    
+    CursorPage<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, CursorRequest request);
+    
+    CursorPage<ProductDto> searchProductsByName(String name, CursorRequest request);
+    
+    ChangePage<ProductDto> getProductChanges(ChangesRequest request);
+    
     ProductDto createProduct(ProductDto productDto);
     
     ProductDto updateProduct(Long id, ProductDto productDto);
@@ -0,0 +1,59 @@
+package com.example.api.service;
+
+import com.example.api.dto.SalesRollupDto;
+import com.example.api.model.Money;
+import com.example.api.model.Order;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the daily sales rollups. Callers take a {@link Snapshot} of an order before changing
+ * it and pass both snapshots to {@link #apply}, which writes only the resulting deltas.
+ */
+public interface SalesRollupService {
+    
+    Snapshot snapshot(Order order);
+    
+    void apply(Snapshot before, Snapshot after);
+    
+    /**
+     * Applies the changes of many orders at once, writing one upsert per affected rollup row.
+     */
+    void applyAll(Collection<Snapshot> before, Collection<Snapshot> after);
+    
+    void rebuild(LocalDate from, LocalDate to);
+    
+    List<SalesRollupDto> getDailyTotalsByStatus(LocalDate from, LocalDate to);
+    
+    List<SalesRollupDto> getTotalsByStatus(LocalDate from, LocalDate to);
+    
+    List<SalesRollupDto> getTotalsByCategory(LocalDate from, LocalDate to);
+    
+    @Getter
+    @RequiredArgsConstructor
+    final class Snapshot {
+        private final LocalDate day;
+        private final String status;
+        private final Money totalAmount;
+        private final long units;
+        // category -> {revenue, units}; empty for cancelled orders
+        private final Map<String, Line> categories;
+        
+        // Only valid between statuses that keep the category lines, i.e. not into or out of CANCELLED
+        public Snapshot withStatus(String newStatus) {
+            return new Snapshot(day, newStatus, totalAmount, units, categories);
+        }
+    }
+    
+    @Getter
+    @RequiredArgsConstructor
+    final class Line {
+        private final Money revenue;
+        private final long units;
+    }
+}
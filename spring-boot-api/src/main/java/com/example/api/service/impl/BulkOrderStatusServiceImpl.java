@@ -0,0 +1,225 @@
+package com.example.api.service.impl;
+
+import com.example.api.dto.BulkStatusRequest;
+import com.example.api.dto.BulkStatusResponse;
+import com.example.api.event.OutboxEvent;
+import com.example.api.model.Money;
+import com.example.api.model.Order;
+import com.example.api.service.BulkOrderStatusService;
+import com.example.api.service.InventoryService;
+import com.example.api.service.OutboxService;
+import com.example.api.service.SalesRollupService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Transactional
+public class BulkOrderStatusServiceImpl implements BulkOrderStatusService {
+
+    // Locks the selected rows in id order, then updates them in one statement; the guard on the
+    // current status is part of the WHERE clause, so a concurrent change cannot slip past it
+    private static final String TRANSITION = """
+            WITH target AS (
+                SELECT id, status FROM orders
+                WHERE %s AND status = ANY (?)
+                ORDER BY id
+                %s
+                FOR UPDATE
+            )
+            UPDATE orders o SET status = ?, updated_at = ?
+            FROM target t
+            WHERE o.id = t.id
+            RETURNING o.id, t.status AS previous_status, o.created_at, o.total_amount,
+                (SELECT COALESCE(SUM(oi.quantity), 0) FROM order_items oi WHERE oi.order_id = o.id) AS units
+            """;
+
+    private static final String ORDER_LINES = """
+            SELECT oi.order_id, oi.product_id, COALESCE(p.category, '') AS category, oi.price, oi.quantity
+            FROM order_items oi
+            JOIN products p ON p.id = oi.product_id
+            WHERE oi.order_id = ANY (?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SalesRollupService salesRollupService;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final int maxOrders;
+
+    public BulkOrderStatusServiceImpl(
+            DataSource dataSource,
+            SalesRollupService salesRollupService,
+            InventoryService inventoryService,
+            OutboxService outboxService,
+            @Value("${orders.bulk-status.max-orders:10000}") int maxOrders
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.salesRollupService = salesRollupService;
+        this.inventoryService = inventoryService;
+        this.outboxService = outboxService;
+        this.maxOrders = Math.max(1, maxOrders);
+    }
+
+    @Override
+    public BulkStatusResponse updateStatuses(BulkStatusRequest request) {
+        Order.OrderStatus target = request.getStatus();
+        Set<Order.OrderStatus> allowed = target.allowedPredecessors();
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        
+        List<Changed> changed = allowed.isEmpty() ? List.of() : byIds
+                ? transitionByIds(request.getIds(), allowed, target)
+                : transitionByFilter(request, allowed, target);
+        
+        if (!changed.isEmpty()) {
+            applySideEffects(changed, target);
+        }
+        
+        List<BulkStatusResponse.Outcome> outcomes = new ArrayList<>();
+        changed.forEach(row -> outcomes.add(new BulkStatusResponse.Outcome(
+                row.id, BulkStatusResponse.Result.UPDATED, row.previousStatus)));
+        if (byIds) {
+            outcomes.addAll(unchangedOutcomes(request.getIds(), changed, target));
+        }
+        
+        return BulkStatusResponse.builder()
+                .status(target.name())
+                .updated(changed.size())
+                .hasMore(!byIds && changed.size() == maxOrders)
+                .outcomes(outcomes)
+                .build();
+    }
+
+    private List<Changed> transitionByIds(List<Long> ids, Set<Order.OrderStatus> allowed, Order.OrderStatus target) {
+        String sql = TRANSITION.formatted("id = ANY (?)", "");
+        return jdbcTemplate.query(sql, ps -> {
+            Connection connection = ps.getConnection();
+            ps.setArray(1, connection.createArrayOf("BIGINT", ids.toArray()));
+            ps.setArray(2, statusArray(connection, allowed));
+            ps.setString(3, target.name());
+            ps.setTimestamp(4, Timestamp.from(Instant.now()));
+        }, (rs, rowNum) -> mapChanged(rs));
+    }
+
+    private List<Changed> transitionByFilter(BulkStatusRequest request, Set<Order.OrderStatus> allowed,
+                                             Order.OrderStatus target) {
+        StringBuilder where = new StringBuilder("status = ?");
+        List<Object> params = new ArrayList<>();
+        params.add(request.getCurrentStatus().name());
+        if (request.getCreatedFrom() != null) {
+            where.append(" AND created_at >= ?");
+            params.add(Timestamp.from(request.getCreatedFrom()));
+        }
+        if (request.getCreatedTo() != null) {
+            where.append(" AND created_at < ?");
+            params.add(Timestamp.from(request.getCreatedTo()));
+        }
+        
+        String sql = TRANSITION.formatted(where, "LIMIT " + maxOrders);
+        return jdbcTemplate.query(sql, ps -> {
+            int index = 1;
+            for (Object param : params) {
+                ps.setObject(index++, param);
+            }
+            ps.setArray(index++, statusArray(ps.getConnection(), allowed));
+            ps.setString(index++, target.name());
+            ps.setTimestamp(index, Timestamp.from(Instant.now()));
+        }, (rs, rowNum) -> mapChanged(rs));
+    }
+
+    // Keeps rollups, stock and the outbox in step with the updated rows without loading any entity
+    private void applySideEffects(List<Changed> changed, Order.OrderStatus target) {
+        boolean cancelling = target == Order.OrderStatus.CANCELLED;
+        Map<Long, Map<String, SalesRollupService.Line>> categoriesByOrder = new HashMap<>();
+        if (cancelling) {
+            Map<Long, Integer> releasedStock = new HashMap<>();
+            jdbcTemplate.query(ORDER_LINES, ps -> ps.setArray(1,
+                    ps.getConnection().createArrayOf("BIGINT", changed.stream().map(Changed::id).toArray())), rs -> {
+                int quantity = rs.getInt("quantity");
+                Money revenue = Money.of(rs.getBigDecimal("price")).times(quantity);
+                releasedStock.merge(rs.getLong("product_id"), quantity, Integer::sum);
+                categoriesByOrder.computeIfAbsent(rs.getLong("order_id"), id -> new HashMap<>())
+                        .merge(rs.getString("category"), new SalesRollupService.Line(revenue, quantity),
+                                (a, b) -> new SalesRollupService.Line(a.getRevenue().plus(b.getRevenue()),
+                                        a.getUnits() + b.getUnits()));
+            });
+            inventoryService.release(releasedStock);
+        }
+        
+        List<SalesRollupService.Snapshot> before = new ArrayList<>();
+        List<SalesRollupService.Snapshot> after = new ArrayList<>();
+        Map<Long, Object> events = new LinkedHashMap<>();
+        for (Changed row : changed) {
+            // Category lines only change when an order is cancelled
+            Map<String, SalesRollupService.Line> categories = categoriesByOrder.getOrDefault(row.id, Map.of());
+            before.add(new SalesRollupService.Snapshot(row.day, row.previousStatus, row.totalAmount, row.units, categories));
+            after.add(new SalesRollupService.Snapshot(row.day, target.name(), row.totalAmount, row.units,
+                    cancelling ? Map.of() : categories));
+            events.put(row.id, OrderServiceImpl.statusChange(row.id, Order.OrderStatus.valueOf(row.previousStatus), target));
+        }
+        salesRollupService.applyAll(before, after);
+        outboxService.publishAll(OutboxEvent.ORDER, "OrderStatusChanged", events);
+    }
+
+    private List<BulkStatusResponse.Outcome> unchangedOutcomes(List<Long> ids, List<Changed> changed,
+                                                               Order.OrderStatus target) {
+        Set<Long> remaining = new LinkedHashSet<>(ids);
+        changed.forEach(row -> remaining.remove(row.id));
+        if (remaining.isEmpty()) {
+            return List.of();
+        }
+        
+        Map<Long, String> current = new HashMap<>();
+        jdbcTemplate.query("SELECT id, status FROM orders WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", remaining.toArray())),
+                rs -> {
+                    current.put(rs.getLong("id"), rs.getString("status"));
+                });
+        return classify(remaining, current, target);
+    }
+
+    static List<BulkStatusResponse.Outcome> classify(Collection<Long> ids, Map<Long, String> currentStatuses,
+                                                     Order.OrderStatus target) {
+        List<BulkStatusResponse.Outcome> outcomes = new ArrayList<>();
+        for (Long id : ids) {
+            String status = currentStatuses.get(id);
+            BulkStatusResponse.Result result = status == null ? BulkStatusResponse.Result.NOT_FOUND
+                    : status.equals(target.name()) ? BulkStatusResponse.Result.UNCHANGED
+                    : BulkStatusResponse.Result.INVALID_TRANSITION;
+            outcomes.add(new BulkStatusResponse.Outcome(id, result, status));
+        }
+        return outcomes;
+    }
+
+    private static Array statusArray(Connection connection, Set<Order.OrderStatus> statuses) throws SQLException {
+        return connection.createArrayOf("VARCHAR", statuses.stream().map(Enum::name).toArray());
+    }
+
+    private static Changed mapChanged(ResultSet rs) throws SQLException {
+        Instant createdAt = rs.getTimestamp("created_at").toInstant();
+        return new Changed(rs.getLong("id"), rs.getString("previous_status"), LocalDate.ofInstant(createdAt, ZoneOffset.UTC),
+                Money.of(rs.getBigDecimal("total_amount")), rs.getLong("units"));
+    }
+
+    private record Changed(Long id, String previousStatus, LocalDate day, Money totalAmount, long units) {
+    }
+}
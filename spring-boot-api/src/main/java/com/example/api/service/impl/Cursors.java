@@ -0,0 +1,131 @@
+package com.example.api.service.impl;
+
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
+import com.example.api.exception.InvalidCursorException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Keyset pagination helpers. A cursor is the base64url-encoded sort plus the (sort key, id) values
+ * of the last row returned; the next page seeks past those values instead of using OFFSET. The
+ * token codec is shared with the change feed watermarks.
+ */
+final class Cursors {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<Map<String, String>> TOKEN_TYPE = new TypeReference<>() {};
+    private static final String SORT_FIELD = "$sort";
+
+    static final Map<String, Function<String, Object>> PRODUCT_KEYS = Map.of(
+            "id", Long::valueOf,
+            "name", value -> value,
+            "price", BigDecimal::new,
+            "createdAt", Instant::parse);
+
+    static final Map<String, Function<String, Object>> ORDER_KEYS = Map.of(
+            "id", Long::valueOf,
+            "createdAt", Instant::parse,
+            "totalAmount", BigDecimal::new);
+
+    private Cursors() {
+    }
+
+    static Sort sort(CursorRequest request, Map<String, Function<String, Object>> keys) {
+        String property = request.getSort() != null ? request.getSort() : "id";
+        if (!keys.containsKey(property)) {
+            throw new InvalidCursorException("Unsupported sort property: " + property);
+        }
+        
+        // id breaks ties so every row has a unique position
+        Sort sort = Sort.by(request.getDirection(), property);
+        return "id".equals(property) ? sort : sort.and(Sort.by(request.getDirection(), "id"));
+    }
+
+    static Limit limit(CursorRequest request) {
+        return Limit.of(request.getSize());
+    }
+
+    static ScrollPosition position(CursorRequest request, Sort sort, Map<String, Function<String, Object>> keys) {
+        if (request.getCursor() == null || request.getCursor().isEmpty()) {
+            return ScrollPosition.keyset();
+        }
+        
+        Map<String, String> token = decodeToken(request.getCursor(), "cursor");
+        if (!sort.toString().equals(token.remove(SORT_FIELD))) {
+            throw new InvalidCursorException("Cursor was issued for a different sort order");
+        }
+        
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (Sort.Order order : sort) {
+            String value = token.get(order.getProperty());
+            if (value == null) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            try {
+                values.put(order.getProperty(), keys.get(order.getProperty()).apply(value));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException("Malformed cursor", e);
+            }
+        }
+        return ScrollPosition.forward(values);
+    }
+
+    static <T, D> CursorPage<D> page(Window<T> window, List<D> content, Sort sort,
+                                     CursorRequest request, LongSupplier total) {
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()) {
+            nextCursor = encode(sort, (KeysetScrollPosition) window.positionAt(window.size() - 1));
+        }
+        
+        return CursorPage.<D>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(window.hasNext())
+                .nextCursor(nextCursor)
+                .totalElements(request.isWithTotal() ? total.getAsLong() : null)
+                .build();
+    }
+
+    // Base64url JSON object of strings; kind names the token in error messages
+    static Map<String, String> decodeToken(String encoded, String kind) {
+        try {
+            return MAPPER.readValue(Base64.getUrlDecoder().decode(encoded), TOKEN_TYPE);
+        } catch (IllegalArgumentException | IOException e) {
+            throw new InvalidCursorException("Malformed " + kind, e);
+        }
+    }
+
+    static String encodeToken(Map<String, String> token) {
+        try {
+            byte[] json = MAPPER.writeValueAsString(token).getBytes(StandardCharsets.UTF_8);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot encode token", e);
+        }
+    }
+
+    private static String encode(Sort sort, KeysetScrollPosition position) {
+        Map<String, String> token = new LinkedHashMap<>();
+        token.put(SORT_FIELD, sort.toString());
+        position.getKeys().forEach((key, value) -> token.put(key, value instanceof BigDecimal decimal
+                ? decimal.toPlainString() : String.valueOf(value)));
+        return encodeToken(token);
+    }
+}
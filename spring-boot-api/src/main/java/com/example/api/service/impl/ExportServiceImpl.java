@@ -0,0 +1,197 @@
+package com.example.api.service.impl;
+
+import com.example.api.service.ExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Reads through a forward-only JDBC cursor instead of JPA, so no entities accumulate in a
+ * persistence context. Each export runs in a read-only REPEATABLE READ transaction, which gives
+ * a consistent snapshot and keeps PostgreSQL from materializing the result set.
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String ORDERS_SQL = """
+            SELECT o.id, o.user_id AS "userId", o.status, o.total_amount AS "totalAmount",
+                   o.shipping_address AS "shippingAddress", o.billing_address AS "billingAddress",
+                   o.payment_method AS "paymentMethod", o.created_at AS "createdAt", o.updated_at AS "updatedAt"
+            FROM orders o
+            ORDER BY o.id
+            """;
+
+    private static final String ORDER_ITEMS_SQL = """
+            SELECT oi.id, oi.order_id AS "orderId", oi.product_id AS "productId", p.name AS "productName",
+                   oi.quantity, oi.price, oi.created_at AS "createdAt", oi.updated_at AS "updatedAt"
+            FROM order_items oi
+            JOIN products p ON p.id = oi.product_id
+            ORDER BY oi.id
+            """;
+
+    private static final String USERS_SQL = """
+            SELECT u.id, u.username, u.email, u.first_name AS "firstName", u.last_name AS "lastName",
+                   u.enabled, u.created_at AS "createdAt", u.updated_at AS "updatedAt",
+                   (SELECT string_agg(r.name, ',' ORDER BY r.name)
+                    FROM user_roles ur JOIN roles r ON r.id = ur.role_id
+                    WHERE ur.user_id = u.id) AS roles
+            FROM users u
+            ORDER BY u.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportServiceImpl(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void exportOrders(Format format, OutputStream out) throws IOException {
+        export(ORDERS_SQL, format, out);
+    }
+
+    @Override
+    public void exportOrderItems(Format format, OutputStream out) throws IOException {
+        export(ORDER_ITEMS_SQL, format, out);
+    }
+
+    @Override
+    public void exportUsers(Format format, OutputStream out) throws IOException {
+        export(USERS_SQL, format, out);
+    }
+
+    private void export(String sql, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql, (RowCallbackHandler) rs -> {
+                        try {
+                            rowWriter.write(rs);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; rethrowing ends the transaction and the cursor
+            throw e.getCause();
+        }
+        
+        writer.flush();
+    }
+
+    private static Object columnValue(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        return value instanceof Timestamp timestamp ? timestamp.toInstant() : value;
+    }
+
+    static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private interface RowWriter {
+        void write(ResultSet rs) throws SQLException, IOException;
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private boolean headerWritten;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            ResultSetMetaData metaData = rs.getMetaData();
+            int columns = metaData.getColumnCount();
+            
+            if (!headerWritten) {
+                for (int i = 1; i <= columns; i++) {
+                    writer.write(i > 1 ? "," : "");
+                    writer.write(escapeCsv(metaData.getColumnLabel(i)));
+                }
+                writer.write("\r\n");
+                headerWritten = true;
+            }
+            
+            for (int i = 1; i <= columns; i++) {
+                writer.write(i > 1 ? "," : "");
+                writer.write(escapeCsv(columnValue(rs, i)));
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    private class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            if (generator == null) {
+                // Rows are separated by newlines only, and flushing a row must not flush the socket
+                generator = objectMapper.getFactory().createGenerator(writer)
+                        .setRootValueSeparator(null)
+                        .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+                        .configure(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM, false);
+            }
+            
+            ResultSetMetaData metaData = rs.getMetaData();
+            generator.writeStartObject();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                generator.writeFieldName(metaData.getColumnLabel(i));
+                generator.writeObject(columnValue(rs, i));
+            }
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.api.service.impl;
+
+import com.example.api.event.OutboxEvent;
+import com.example.api.model.Order;
+import com.example.api.repository.OrderRepository;
+import com.example.api.service.FulfilmentService;
+import com.example.api.service.OutboxService;
+import com.example.api.service.SalesRollupService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Each worker locks up to {@code batch-size} PENDING orders with {@code FOR UPDATE SKIP LOCKED},
+ * advances them with a single UPDATE and commits. Workers on this and other nodes skip rows that
+ * are already locked, so no order is claimed twice and adding nodes adds throughput. A worker
+ * that finds less than a full batch sleeps for {@code poll-interval} before polling again.
+ * Only PENDING -> PROCESSING is automated; SHIPPED and DELIVERED are still set through the
+ * order status API. Off unless {@code fulfilment.enabled} is set.
+ */
+@Slf4j
+@Service
+public class FulfilmentServiceImpl implements FulfilmentService {
+
+    private final OrderRepository orderRepository;
+    private final SalesRollupService salesRollupService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int workers;
+    private final int batchSize;
+    private final Duration pollInterval;
+    private final Counter processed;
+    private final Timer batchTimer;
+    private final Timer lag;
+
+    private volatile boolean running;
+    private ExecutorService executor;
+
+    public FulfilmentServiceImpl(
+            OrderRepository orderRepository,
+            SalesRollupService salesRollupService,
+            OutboxService outboxService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${fulfilment.enabled:false}") boolean enabled,
+            @Value("${fulfilment.workers:2}") int workers,
+            @Value("${fulfilment.batch-size:100}") int batchSize,
+            @Value("${fulfilment.poll-interval:1s}") Duration pollInterval
+    ) {
+        this.orderRepository = orderRepository;
+        this.salesRollupService = salesRollupService;
+        this.outboxService = outboxService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.workers = Math.max(1, workers);
+        this.batchSize = Math.max(1, batchSize);
+        this.pollInterval = pollInterval;
+        this.processed = Counter.builder("fulfilment.orders.processed")
+                .description("Orders moved from PENDING to PROCESSING")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("fulfilment.batch")
+                .description("Time to claim and advance one batch")
+                .register(meterRegistry);
+        this.lag = Timer.builder("fulfilment.lag")
+                .description("Time from order creation until a worker claimed it")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            log.info("Fulfilment workers disabled");
+            return;
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        running = true;
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "fulfilment-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            executor.submit(this::poll);
+        }
+        log.info("Started {} fulfilment workers with batch size {}", workers, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (executor != null) {
+            executor.shutdownNow();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Override
+    public int processNextBatch() {
+        Integer count = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = orderRepository.lockPendingIds(batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            
+            Instant now = Instant.now();
+            List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+            List<SalesRollupService.Snapshot> before = orders.stream().map(salesRollupService::snapshot).toList();
+            List<SalesRollupService.Snapshot> after = before.stream()
+                    .map(snapshot -> snapshot != null ? snapshot.withStatus(Order.OrderStatus.PROCESSING.name()) : null)
+                    .toList();
+            
+            int updated = orderRepository.updateStatus(ids, Order.OrderStatus.PENDING, Order.OrderStatus.PROCESSING, now);
+            salesRollupService.applyAll(before, after);
+            outboxService.publishAll(OutboxEvent.ORDER, "OrderStatusChanged", ids.stream().collect(Collectors.toMap(
+                    Function.identity(),
+                    id -> OrderServiceImpl.statusChange(id, Order.OrderStatus.PENDING, Order.OrderStatus.PROCESSING),
+                    (a, b) -> a, LinkedHashMap::new)));
+            
+            orders.forEach(order -> lag.record(Duration.between(order.getCreatedAt(), now)));
+            return updated;
+        }));
+        
+        int advanced = count != null ? count : 0;
+        processed.increment(advanced);
+        return advanced;
+    }
+
+    private void poll() {
+        while (running) {
+            try {
+                if (processNextBatch() < batchSize) {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Fulfilment batch failed, retrying after {}", pollInterval, e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
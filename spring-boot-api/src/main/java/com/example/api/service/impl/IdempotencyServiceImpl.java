@@ -0,0 +1,223 @@
+package com.example.api.service.impl;
+
+import com.example.api.exception.IdempotencyKeyInProgressException;
+import com.example.api.exception.IdempotencyKeyMismatchException;
+import com.example.api.model.IdempotencyRecord;
+import com.example.api.repository.IdempotencyRecordRepository;
+import com.example.api.service.IdempotencyService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Stores the response of each keyed request in {@code idempotency_keys}, fronted by a Caffeine
+ * cache so most retries are answered from memory. Duplicates that arrive while the first request
+ * is still running wait for its result on this node; on other nodes they see the claim row and
+ * get a 409. The action and the stored response commit in the same transaction.
+ */
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration inFlightTimeout;
+    private final Cache<String, StoredResponse> cache;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyServiceImpl(
+            IdempotencyRecordRepository idempotencyRecordRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${idempotency.ttl:24h}") Duration ttl,
+            @Value("${idempotency.in-flight-timeout:30s}") Duration inFlightTimeout,
+            @Value("${idempotency.cache.maximum-size:10000}") long maximumSize
+    ) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.inFlightTimeout = inFlightTimeout;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "idempotency.responses");
+    }
+
+    @Override
+    public <T> ResponseEntity<T> execute(String key, String scope, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String keyHash = digest(principal() + "\n" + scope + "\n" + key);
+        String requestHash = digest(toJson(request));
+
+        StoredResponse cached = cache.getIfPresent(keyHash);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> future = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(keyHash, future);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            Optional<StoredResponse> stored = findCompleted(keyHash);
+            if (stored.isEmpty() && !claim(keyHash, requestHash)) {
+                // another node holds the key; if it finished in the meantime the retry still gets a replay
+                stored = Optional.of(findCompleted(keyHash).orElseThrow(IdempotencyKeyInProgressException::new));
+            }
+            if (stored.isPresent()) {
+                cache.put(keyHash, stored.get());
+                future.complete(stored.get());
+                return replay(stored.get(), requestHash, responseType);
+            }
+
+            return run(keyHash, requestHash, action, future);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(keyHash, future);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:600000}",
+            initialDelayString = "${idempotency.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        idempotencyRecordRepository.deleteExpired(Instant.now());
+    }
+
+    private boolean claim(String keyHash, String requestHash) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(ttl);
+        return idempotencyRecordRepository.insertIfAbsent(keyHash, requestHash, now, expiresAt) > 0
+                || idempotencyRecordRepository.reclaim(keyHash, requestHash, now, now.minus(inFlightTimeout), expiresAt) > 0;
+    }
+
+    private <T> ResponseEntity<T> run(String keyHash, String requestHash, Supplier<ResponseEntity<T>> action,
+                                      CompletableFuture<StoredResponse> future) {
+        ResponseEntity<T> response;
+        try {
+            response = transactionTemplate.execute(status -> {
+                ResponseEntity<T> result = action.get();
+                idempotencyRecordRepository.complete(keyHash, result.getStatusCode().value(), toJson(result.getBody()));
+                return result;
+            });
+        } catch (RuntimeException e) {
+            // nothing was committed, so a retry with the same key may run the action again
+            idempotencyRecordRepository.release(keyHash);
+            throw e;
+        }
+
+        StoredResponse stored = new StoredResponse(requestHash, response.getStatusCode().value(), toJson(response.getBody()));
+        cache.put(keyHash, stored);
+        future.complete(stored);
+        return response;
+    }
+
+    private Optional<StoredResponse> findCompleted(String keyHash) {
+        return idempotencyRecordRepository.findById(keyHash)
+                .filter(IdempotencyRecord::isCompleted)
+                .filter(record -> record.getExpiresAt().isAfter(Instant.now()))
+                .map(record -> new StoredResponse(record.getRequestHash(), record.getStatusCode(), record.getResponseBody()));
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(inFlightTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotencyKeyInProgressException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyMismatchException();
+        }
+
+        try {
+            T body = stored.getBody() != null ? objectMapper.readValue(stored.getBody(), responseType) : null;
+            return ResponseEntity.status(stored.getStatusCode())
+                    .header(REPLAYED_HEADER, "true")
+                    .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return value != null ? objectMapper.writeValueAsString(value) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize idempotent request", e);
+        }
+    }
+
+    private static String principal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    static String digest(String value) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class StoredResponse {
+        private final String requestHash;
+        private final int statusCode;
+        private final String body;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.api.service.impl;
+
+import com.example.api.exception.InsufficientStockException;
+import com.example.api.repository.ProductRepository;
+import com.example.api.service.InventoryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class InventoryServiceImpl implements InventoryService {
+
+    private final ProductRepository productRepository;
+
+    @Override
+    public void reserve(Map<Long, Integer> quantitiesByProductId) {
+        Instant now = Instant.now();
+        for (Map.Entry<Long, Integer> entry : inIdOrder(quantitiesByProductId).entrySet()) {
+            // The conditional UPDATE checks and decrements in one statement; a miss rolls back earlier reservations
+            if (productRepository.reserveStock(entry.getKey(), entry.getValue(), now) == 0) {
+                throw new InsufficientStockException(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    @Override
+    public void release(Map<Long, Integer> quantitiesByProductId) {
+        Instant now = Instant.now();
+        for (Map.Entry<Long, Integer> entry : inIdOrder(quantitiesByProductId).entrySet()) {
+            productRepository.releaseStock(entry.getKey(), entry.getValue(), now);
+        }
+    }
+    
+    // A negative reservation would add stock and a negative release would take it, so both are refused up front
+    private static Map<Long, Integer> inIdOrder(Map<Long, Integer> quantitiesByProductId) {
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (quantity == null || quantity <= 0) {
+                throw new IllegalArgumentException("Quantity must be positive for product " + productId + ": " + quantity);
+            }
+        });
+        return new TreeMap<>(quantitiesByProductId);
+    }
+}
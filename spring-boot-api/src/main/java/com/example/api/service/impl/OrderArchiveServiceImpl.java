@@ -0,0 +1,243 @@
+package com.example.api.service.impl;
+
+import com.example.api.dto.OrderDto;
+import com.example.api.event.OutboxEvent;
+import com.example.api.model.Money;
+import com.example.api.model.Order;
+import com.example.api.repository.OrderRepository;
+import com.example.api.service.InventoryService;
+import com.example.api.service.OrderArchiveService;
+import com.example.api.service.OutboxService;
+import com.example.api.service.SalesRollupService;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Each batch locks up to {@code batch-size} closed orders with {@code FOR UPDATE SKIP LOCKED},
+ * writes them to {@code archived_orders} and deletes them (and, by cascade, their items) in the
+ * same transaction. Runs on the shared scheduler one batch per {@code pause-ms}, so it never holds
+ * the scheduler thread or many row locks for long; after a short batch it idles for
+ * {@code idle-interval}. Archived orders stay counted in the sales rollups.
+ */
+@Slf4j
+@Service
+public class OrderArchiveServiceImpl implements OrderArchiveService {
+
+    private static final String INSERT_ARCHIVED = """
+            INSERT INTO archived_orders (id, user_id, status, total_amount, units, categories, created_at, document)
+            VALUES (?, ?, ?, ?, ?, ?::jsonb, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            """;
+
+    private final OrderRepository orderRepository;
+    private final SalesRollupService salesRollupService;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration idleInterval;
+    private final Counter archived;
+
+    private volatile Instant idleUntil = Instant.MIN;
+
+    public OrderArchiveServiceImpl(
+            OrderRepository orderRepository,
+            SalesRollupService salesRollupService,
+            InventoryService inventoryService,
+            OutboxService outboxService,
+            ObjectMapper objectMapper,
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${orders.archive.enabled:false}") boolean enabled,
+            @Value("${orders.archive.min-age:180d}") Duration minAge,
+            @Value("${orders.archive.batch-size:200}") int batchSize,
+            @Value("${orders.archive.idle-interval:10m}") Duration idleInterval
+    ) {
+        this.orderRepository = orderRepository;
+        this.salesRollupService = salesRollupService;
+        this.inventoryService = inventoryService;
+        this.outboxService = outboxService;
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.batchSize = Math.max(1, batchSize);
+        this.idleInterval = idleInterval;
+        this.archived = Counter.builder("orders.archived")
+                .description("Closed orders moved to archived_orders")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${orders.archive.pause-ms:1000}",
+            initialDelayString = "${orders.archive.pause-ms:1000}")
+    public void archiveClosedOrders() {
+        if (!enabled || Instant.now().isBefore(idleUntil)) {
+            return;
+        }
+
+        try {
+            if (archiveNextBatch() < batchSize) {
+                idleUntil = Instant.now().plus(idleInterval);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Order archive batch failed, retrying after {}", idleInterval, e);
+            idleUntil = Instant.now().plus(idleInterval);
+        }
+    }
+
+    @Override
+    public int archiveNextBatch() {
+        Integer count = transactionTemplate.execute(status -> {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(minAge));
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM orders WHERE status IN ('DELIVERED', 'CANCELLED') AND created_at < ? "
+                            + "LIMIT ? FOR UPDATE SKIP LOCKED", Long.class, cutoff, batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            List<Order> orders = orderRepository.findWithItemsByIdIn(ids);
+            List<Object[]> rows = orders.stream().map(this::toRow).toList();
+            jdbcTemplate.batchUpdate(INSERT_ARCHIVED, rows);
+            jdbcTemplate.update("DELETE FROM orders WHERE id = ANY (?)",
+                    ps -> ps.setArray(1, ps.getConnection().createArrayOf("BIGINT", ids.toArray())));
+
+            Map<Long, Object> events = new LinkedHashMap<>();
+            ids.forEach(id -> events.put(id, Map.of("orderId", id)));
+            outboxService.publishAll(OutboxEvent.ORDER, "OrderArchived", events);
+            return orders.size();
+        });
+
+        int moved = count != null ? count : 0;
+        archived.increment(moved);
+        return moved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<OrderDto> findArchivedOrder(Long id) {
+        return jdbcTemplate.query("SELECT document FROM archived_orders WHERE id = ?",
+                (rs, rowNum) -> decompress(rs.getBytes(1)), id).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> findOwnerId(Long id) {
+        return jdbcTemplate.queryForList("SELECT user_id FROM archived_orders WHERE id = ?", Long.class, id)
+                .stream().findFirst();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> findOwnerUsername(Long id) {
+        return jdbcTemplate.queryForList(
+                "SELECT u.username FROM archived_orders a JOIN users u ON u.id = a.user_id WHERE a.id = ?",
+                String.class, id).stream().findFirst();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean deleteArchivedOrder(Long id) {
+        Map<Long, Integer> heldStock = new HashMap<>();
+        List<SalesRollupService.Snapshot> deleted = jdbcTemplate.query(
+                "DELETE FROM archived_orders WHERE id = ? "
+                        + "RETURNING status, total_amount, units, categories, created_at, document",
+                (rs, rowNum) -> {
+                    // Same rule as deleting a live order; the archiver only moves orders that no longer hold stock
+                    if (Order.OrderStatus.valueOf(rs.getString("status")).holdsUnshippedStock()) {
+                        decompress(rs.getBytes("document")).getOrderItems().forEach(item ->
+                                heldStock.merge(item.getProductId(), item.getQuantity(), Integer::sum));
+                    }
+                    return new SalesRollupService.Snapshot(
+                            LocalDate.ofInstant(rs.getTimestamp("created_at").toInstant(), ZoneOffset.UTC),
+                            rs.getString("status"), Money.of(rs.getBigDecimal("total_amount")), rs.getLong("units"),
+                            readCategories(rs.getString("categories")));
+                }, id);
+        if (deleted.isEmpty()) {
+            return false;
+        }
+
+        if (!heldStock.isEmpty()) {
+            inventoryService.release(heldStock);
+        }
+        salesRollupService.apply(deleted.get(0), null);
+        outboxService.publish(OutboxEvent.ORDER, id, "OrderDeleted", Map.of("orderId", id));
+        return true;
+    }
+
+    private Object[] toRow(Order order) {
+        SalesRollupService.Snapshot snapshot = salesRollupService.snapshot(order);
+        try {
+            return new Object[]{order.getId(), order.getUser().getId(), order.getStatus().name(),
+                    order.getTotalAmount(), snapshot.getUnits(),
+                    objectMapper.writeValueAsString(snapshot.getCategories()),
+                    Timestamp.from(order.getCreatedAt()), compress(OrderServiceImpl.mapToDto(order))};
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not archive order " + order.getId(), e);
+        }
+    }
+
+    private byte[] compress(OrderDto order) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, order);
+        }
+        return bytes.toByteArray();
+    }
+
+    private OrderDto decompress(byte[] document) {
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(document))) {
+            return objectMapper.readValue(gzip, OrderDto.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Archived order could not be read", e);
+        }
+    }
+
+    private Map<String, SalesRollupService.Line> readCategories(String json) {
+        try {
+            // Read revenue as BigDecimal so it converts to Money without going through a double
+            JsonNode node = objectMapper.reader(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).readTree(json);
+            Map<String, SalesRollupService.Line> categories = new HashMap<>();
+            node.fields().forEachRemaining(entry -> categories.put(entry.getKey(), new SalesRollupService.Line(
+                    Money.of(entry.getValue().get("revenue").decimalValue()), entry.getValue().get("units").asLong())));
+            return categories;
+        } catch (IOException e) {
+            throw new IllegalStateException("Archived order categories could not be read", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.api.service.impl;
 
+import com.example.api.dto.OrderDto;
 import com.example.api.dto.OrderItemDto;
 import com.example.api.model.Order;
 import com.example.api.model.OrderItem;
@@ -7,12 +8,20 @@ import com.example.api.model.Product;
 import com.example.api.repository.OrderItemRepository;
 import com.example.api.repository.OrderRepository;
 import com.example.api.repository.ProductRepository;
+import com.example.api.security.OrderLookupCache;
+import com.example.api.service.InventoryService;
+import com.example.api.service.OrderArchiveService;
 import com.example.api.service.OrderItemService;
+import com.example.api.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -24,6 +33,10 @@ public class OrderItemServiceImpl implements OrderItemService {
     private final OrderItemRepository orderItemRepository;
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final OrderLookupCache orderLookupCache;
+    private final OrderArchiveService orderArchiveService;
+    private final SalesRollupService salesRollupService;
+    private final InventoryService inventoryService;
 
     @Override
     @Transactional(readOnly = true)
@@ -43,10 +56,27 @@ public class OrderItemServiceImpl implements OrderItemService {
     @Override
     @Transactional(readOnly = true)
     public List<OrderItemDto> getOrderItemsByOrderId(Long orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        // The ownership check may already have loaded the whole order during this request
+        Optional<OrderDto> loaded = orderLookupCache.findLoadedOrder(orderId);
+        if (loaded.isPresent()) {
+            return Objects.requireNonNullElse(loaded.get().getOrderItems(), List.of());
+        }
+        
+        List<OrderItem> items = orderItemRepository.findByOrderId(orderId);
+        if (items.isEmpty()) {
+            // Archived orders keep their items in the archive document
+            Optional<OrderDto> archived = orderArchiveService.findArchivedOrder(orderId);
+            if (archived.isPresent()) {
+                return Objects.requireNonNullElse(archived.get().getOrderItems(), List.of());
+            }
+            
+            // The ownership check may already have proved the order exists during this request
+            if (!orderLookupCache.isKnownOrder(orderId) && !orderRepository.existsById(orderId)) {
+                throw new RuntimeException("Order not found with id: " + orderId);
+            }
+        }
         
-        return orderItemRepository.findByOrder(order).stream()
+        return items.stream()
                 .map(this::mapToDto)
                 .collect(Collectors.toList());
     }
@@ -66,10 +96,10 @@ public class OrderItemServiceImpl implements OrderItemService {
     public OrderItemDto createOrderItem(OrderItemDto orderItemDto) {
         OrderItem orderItem = new OrderItem();
         
-        // Set order
-        Order order = orderRepository.findById(orderItemDto.getOrderId())
+        // Set order; it is locked and its items loaded so stock and rollups can be adjusted by the difference
+        Order order = findOrderForUpdate(orderItemDto.getOrderId())
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderItemDto.getOrderId()));
-        orderItem.setOrder(order);
+        SalesRollupService.Snapshot before = salesRollupService.snapshot(order);
         
         // Set product
         Product product = productRepository.findById(orderItemDto.getProductId())
@@ -79,17 +109,26 @@ public class OrderItemServiceImpl implements OrderItemService {
         // Set other fields
         orderItem.setQuantity(orderItemDto.getQuantity());
         orderItem.setPrice(orderItemDto.getPrice());
+        order.addOrderItem(orderItem);
+        adjustStock(order, Map.of(product.getId(), orderItem.getQuantity()));
         
         // Save order item
         OrderItem savedOrderItem = orderItemRepository.save(orderItem);
+        salesRollupService.apply(before, salesRollupService.snapshot(order));
+        orderRepository.touch(order.getId(), Instant.now());
         
         return mapToDto(savedOrderItem);
     }
 
     @Override
     public OrderItemDto updateOrderItem(Long id, OrderItemDto orderItemDto) {
-        OrderItem existingOrderItem = orderItemRepository.findById(id)
+        Order order = orderItemRepository.findOrderIdById(id).flatMap(this::findOrderForUpdate)
+                .orElseThrow(() -> new RuntimeException("Order item not found with id: " + id));
+        OrderItem existingOrderItem = findItem(order, id)
                 .orElseThrow(() -> new RuntimeException("Order item not found with id: " + id));
+        SalesRollupService.Snapshot before = salesRollupService.snapshot(order);
+        Map<Long, Integer> stockDeltas = new HashMap<>();
+        stockDeltas.merge(existingOrderItem.getProduct().getId(), -existingOrderItem.getQuantity(), Integer::sum);
         
         // Update fields
         if (orderItemDto.getQuantity() != null) {
@@ -107,13 +146,61 @@ public class OrderItemServiceImpl implements OrderItemService {
             existingOrderItem.setProduct(product);
         }
         
+        stockDeltas.merge(existingOrderItem.getProduct().getId(), existingOrderItem.getQuantity(), Integer::sum);
+        adjustStock(order, stockDeltas);
         OrderItem updatedOrderItem = orderItemRepository.save(existingOrderItem);
+        salesRollupService.apply(before, salesRollupService.snapshot(order));
+        orderRepository.touch(order.getId(), Instant.now());
         return mapToDto(updatedOrderItem);
     }
 
     @Override
     public void deleteOrderItem(Long id) {
-        orderItemRepository.deleteById(id);
+        orderItemRepository.findOrderIdById(id).flatMap(this::findOrderForUpdate).ifPresent(order ->
+                findItem(order, id).ifPresent(orderItem -> {
+                    SalesRollupService.Snapshot before = salesRollupService.snapshot(order);
+                    adjustStock(order, Map.of(orderItem.getProduct().getId(), -orderItem.getQuantity()));
+                    order.removeOrderItem(orderItem);
+                    orderItemRepository.delete(orderItem);
+                    salesRollupService.apply(before, salesRollupService.snapshot(order));
+                    orderRepository.touch(order.getId(), Instant.now());
+                }));
+    }
+    
+    // Locks the order row before reading it, the same way OrderServiceImpl does for order writes
+    private Optional<Order> findOrderForUpdate(Long orderId) {
+        return orderRepository.lockById(orderId).flatMap(orderRepository::findWithItemsById);
+    }
+    
+    // Read from the locked order, so the item cannot change between reading and writing it
+    private static Optional<OrderItem> findItem(Order order, Long itemId) {
+        return order.getOrderItems().stream()
+                .filter(item -> itemId.equals(item.getId()))
+                .findFirst();
+    }
+    
+    // Cancelled orders hold no stock; otherwise an edit reserves what it added and releases what it removed
+    private void adjustStock(Order order, Map<Long, Integer> deltasByProductId) {
+        if (order.getStatus() == Order.OrderStatus.CANCELLED) {
+            return;
+        }
+        
+        Map<Long, Integer> toReserve = new HashMap<>();
+        Map<Long, Integer> toRelease = new HashMap<>();
+        deltasByProductId.forEach((productId, delta) -> {
+            if (delta > 0) {
+                toReserve.put(productId, delta);
+            } else if (delta < 0) {
+                toRelease.put(productId, -delta);
+            }
+        });
+        
+        if (!toRelease.isEmpty()) {
+            inventoryService.release(toRelease);
+        }
+        if (!toReserve.isEmpty()) {
+            inventoryService.reserve(toReserve);
+        }
     }
     
     // Helper methods for mapping between entity and DTO
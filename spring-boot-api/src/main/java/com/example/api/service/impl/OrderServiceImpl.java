@@ -1,7 +1,12 @@
 package com.example.api.service.impl;
 
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
 import com.example.api.dto.OrderDto;
 import com.example.api.dto.OrderItemDto;
+import com.example.api.event.OutboxEvent;
 import com.example.api.model.Order;
 import com.example.api.model.OrderItem;
 import com.example.api.model.Product;
@@ -9,18 +14,29 @@ import com.example.api.model.User;
 import com.example.api.repository.OrderRepository;
 import com.example.api.repository.ProductRepository;
 import com.example.api.repository.UserRepository;
-import com.example.api.service.OrderItemService;
+import com.example.api.security.OrderLookupCache;
+import com.example.api.service.ChangeFeedService;
+import com.example.api.service.InventoryService;
+import com.example.api.service.OrderArchiveService;
 import com.example.api.service.OrderService;
+import com.example.api.service.OutboxService;
+import com.example.api.service.SalesRollupService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -31,28 +47,32 @@ public class OrderServiceImpl implements OrderService {
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
-    private final OrderItemService orderItemService;
+    private final SalesRollupService salesRollupService;
+    private final InventoryService inventoryService;
+    private final OutboxService outboxService;
+    private final OrderArchiveService orderArchiveService;
+    private final ChangeFeedService changeFeedService;
+    private final OrderLookupCache orderLookupCache;
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(this::mapToDto)
+        return orderRepository.findAllWithItems().stream()
+                .map(OrderServiceImpl::mapToDto)
                 .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDto> getAllOrders(Pageable pageable) {
-        return orderRepository.findAll(pageable)
-                .map(this::mapToDto);
+        return fetchPage(orderRepository.findIds(pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Optional<OrderDto> getOrderById(Long id) {
-        return orderRepository.findById(id)
-                .map(this::mapToDto);
+        // The ownership check earlier in the same request may already have loaded it
+        return orderLookupCache.getOrder(id, this::loadOrder);
     }
 
     @Override
@@ -62,7 +82,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
         return orderRepository.findByUser(user).stream()
-                .map(this::mapToDto)
+                .map(OrderServiceImpl::mapToDto)
                 .collect(Collectors.toList());
     }
 
@@ -72,15 +92,43 @@ public class OrderServiceImpl implements OrderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
-        return orderRepository.findByUser(user, pageable)
-                .map(this::mapToDto);
+        return fetchPage(orderRepository.findIdsByUser(user, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> getOrders(CursorRequest request) {
+        Sort sort = Cursors.sort(request, Cursors.ORDER_KEYS);
+        Window<Order> window = orderRepository.findAllBy(
+                Cursors.position(request, sort, Cursors.ORDER_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, orderRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<OrderDto> getOrdersByUserId(Long userId, CursorRequest request) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        
+        Sort sort = Cursors.sort(request, Cursors.ORDER_KEYS);
+        Window<Order> window = orderRepository.findByUser(user,
+                Cursors.position(request, sort, Cursors.ORDER_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, () -> orderRepository.countByUser(user));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangePage<OrderDto> getOrderChanges(ChangesRequest request) {
+        return changeFeedService.getChanges(OutboxEvent.ORDER, request,
+                ids -> orderRepository.findWithItemsByIdIn(ids).stream()
+                        .collect(Collectors.toMap(Order::getId, OrderServiceImpl::mapToDto)));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByStatus(Order.OrderStatus status) {
         return orderRepository.findByStatus(status).stream()
-                .map(this::mapToDto)
+                .map(OrderServiceImpl::mapToDto)
                 .collect(Collectors.toList());
     }
 
@@ -91,7 +139,7 @@ public class OrderServiceImpl implements OrderService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
         return orderRepository.findByUserAndStatus(user, status).stream()
-                .map(this::mapToDto)
+                .map(OrderServiceImpl::mapToDto)
                 .collect(Collectors.toList());
     }
 
@@ -99,7 +147,7 @@ public class OrderServiceImpl implements OrderService {
     @Transactional(readOnly = true)
     public List<OrderDto> getOrdersByDateRange(Instant startDate, Instant endDate) {
         return orderRepository.findByCreatedAtBetween(startDate, endDate).stream()
-                .map(this::mapToDto)
+                .map(OrderServiceImpl::mapToDto)
                 .collect(Collectors.toList());
     }
 
@@ -124,30 +172,46 @@ public class OrderServiceImpl implements OrderService {
             order.setStatus(Order.OrderStatus.PENDING);
         }
         
-        // Save order first to get ID
-        Order savedOrder = orderRepository.save(order);
-        
-        // Process order items if present
+        // Resolve every product in one query and build the whole aggregate before persisting
         if (orderDto.getOrderItems() != null && !orderDto.getOrderItems().isEmpty()) {
+            Set<Long> productIds = orderDto.getOrderItems().stream()
+                    .map(OrderItemDto::getProductId)
+                    .collect(Collectors.toSet());
+            Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            
             for (OrderItemDto itemDto : orderDto.getOrderItems()) {
-                OrderItemDto newItemDto = new OrderItemDto();
-                newItemDto.setOrderId(savedOrder.getId());
-                newItemDto.setProductId(itemDto.getProductId());
-                newItemDto.setQuantity(itemDto.getQuantity());
-                newItemDto.setPrice(itemDto.getPrice());
+                Product product = products.get(itemDto.getProductId());
+                if (product == null) {
+                    throw new RuntimeException("Product not found with id: " + itemDto.getProductId());
+                }
                 
-                orderItemService.createOrderItem(newItemDto);
+                OrderItem orderItem = new OrderItem();
+                orderItem.setProduct(product);
+                orderItem.setQuantity(itemDto.getQuantity());
+                orderItem.setPrice(itemDto.getPrice());
+                order.addOrderItem(orderItem);
             }
         }
         
-        // Refresh order to include order items
-        return mapToDto(orderRepository.findById(savedOrder.getId()).orElseThrow());
+        if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+            inventoryService.reserve(quantitiesByProduct(order));
+        }
+        
+        // Items are cascaded from the order, so the saved aggregate already holds everything the DTO needs
+        Order savedOrder = orderRepository.save(order);
+        salesRollupService.apply(null, salesRollupService.snapshot(savedOrder));
+        OrderDto result = mapToDto(savedOrder);
+        outboxService.publish(OutboxEvent.ORDER, savedOrder.getId(), "OrderCreated", result);
+        return result;
     }
 
     @Override
     public OrderDto updateOrder(Long id, OrderDto orderDto) {
-        Order existingOrder = orderRepository.findById(id)
+        Order existingOrder = findForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
+        SalesRollupService.Snapshot before = salesRollupService.snapshot(existingOrder);
+        Order.OrderStatus previousStatus = existingOrder.getStatus();
         
         // Update fields
         if (orderDto.getStatus() != null) {
@@ -170,28 +234,108 @@ public class OrderServiceImpl implements OrderService {
             existingOrder.setPaymentMethod(orderDto.getPaymentMethod());
         }
         
+        adjustStock(existingOrder, previousStatus);
         Order updatedOrder = orderRepository.save(existingOrder);
-        return mapToDto(updatedOrder);
+        salesRollupService.apply(before, salesRollupService.snapshot(updatedOrder));
+        OrderDto result = mapToDto(updatedOrder);
+        outboxService.publish(OutboxEvent.ORDER, id, "OrderUpdated", result);
+        return result;
     }
 
     @Override
     public OrderDto updateOrderStatus(Long id, Order.OrderStatus status) {
-        Order order = orderRepository.findById(id)
+        Order order = findForUpdate(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
         
+        SalesRollupService.Snapshot before = salesRollupService.snapshot(order);
+        Order.OrderStatus previousStatus = order.getStatus();
         order.setStatus(status);
+        adjustStock(order, previousStatus);
         Order updatedOrder = orderRepository.save(order);
+        salesRollupService.apply(before, salesRollupService.snapshot(updatedOrder));
+        outboxService.publish(OutboxEvent.ORDER, id, "OrderStatusChanged", statusChange(id, previousStatus, status));
         
         return mapToDto(updatedOrder);
     }
 
     @Override
     public void deleteOrder(Long id) {
-        orderRepository.deleteById(id);
+        findForUpdate(id).ifPresentOrElse(order -> {
+            SalesRollupService.Snapshot before = salesRollupService.snapshot(order);
+            if (order.getStatus().holdsUnshippedStock()) {
+                inventoryService.release(quantitiesByProduct(order));
+            }
+            orderRepository.delete(order);
+            salesRollupService.apply(before, null);
+            changeFeedService.recordDeletion(OutboxEvent.ORDER, id);
+            outboxService.publish(OutboxEvent.ORDER, id, "OrderDeleted", Map.of("orderId", id));
+        }, () -> {
+            if (orderArchiveService.deleteArchivedOrder(id)) {
+                changeFeedService.recordDeletion(OutboxEvent.ORDER, id);
+            }
+        });
+    }
+    
+    // Payload of OrderStatusChanged, shared with the fulfilment workers
+    static Map<String, Object> statusChange(Long orderId, Order.OrderStatus from, Order.OrderStatus to) {
+        return Map.of("orderId", orderId, "previousStatus", from.name(), "status", to.name());
+    }
+    
+    // The row lock comes first, so the status, stock and rollup snapshot read here stay current until commit
+    private Optional<Order> findForUpdate(Long id) {
+        return orderRepository.lockById(id).flatMap(orderRepository::findWithItemsById);
+    }
+    
+    // Cancelling returns the order's stock; reopening a cancelled order reserves it again
+    private void adjustStock(Order order, Order.OrderStatus previousStatus) {
+        boolean wasCancelled = previousStatus == Order.OrderStatus.CANCELLED;
+        boolean isCancelled = order.getStatus() == Order.OrderStatus.CANCELLED;
+        
+        if (isCancelled && !wasCancelled) {
+            inventoryService.release(quantitiesByProduct(order));
+        } else if (wasCancelled && !isCancelled) {
+            inventoryService.reserve(quantitiesByProduct(order));
+        }
+    }
+    
+    private static Map<Long, Integer> quantitiesByProduct(Order order) {
+        return order.getOrderItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), OrderItem::getQuantity, Integer::sum));
+    }
+    
+    // Fetches the orders of an id page with their items and keeps the page order
+    private Page<OrderDto> fetchPage(Page<Long> ids) {
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        
+        Map<Long, Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent()).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.map(id -> mapToDto(orders.get(id)));
+    }
+    
+    // Re-fetches the window's orders with their items so mapping does not load them one by one
+    private CursorPage<OrderDto> toCursorPage(Window<Order> window, Sort sort,
+                                              CursorRequest request, LongSupplier total) {
+        List<Long> ids = window.getContent().stream().map(Order::getId).collect(Collectors.toList());
+        Map<Long, Order> orders = ids.isEmpty() ? Map.of() : orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        
+        List<OrderDto> content = ids.stream()
+                .map(id -> mapToDto(orders.get(id)))
+                .collect(Collectors.toList());
+        return Cursors.page(window, content, sort, request, total);
+    }
+    
+    // Closed orders past orders.archive.min-age are only in the archive
+    private Optional<OrderDto> loadOrder(Long id) {
+        return orderRepository.findWithItemsById(id)
+                .map(OrderServiceImpl::mapToDto)
+                .or(() -> orderArchiveService.findArchivedOrder(id));
     }
     
-    // Helper methods for mapping between entity and DTO
-    private OrderDto mapToDto(Order order) {
+    // Helper methods for mapping between entity and DTO, shared with the archiver
+    static OrderDto mapToDto(Order order) {
         OrderDto orderDto = OrderDto.builder()
                 .id(order.getId())
                 .userId(order.getUser().getId())
@@ -205,7 +349,7 @@ public class OrderServiceImpl implements OrderService {
         // Map order items
         if (order.getOrderItems() != null && !order.getOrderItems().isEmpty()) {
             List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
-                    .map(this::mapOrderItemToDto)
+                    .map(OrderServiceImpl::mapOrderItemToDto)
                     .collect(Collectors.toList());
             
             orderDto.setOrderItems(orderItemDtos);
@@ -214,7 +358,7 @@ public class OrderServiceImpl implements OrderService {
         return orderDto;
     }
     
-    private OrderItemDto mapOrderItemToDto(OrderItem orderItem) {
+    static OrderItemDto mapOrderItemToDto(OrderItem orderItem) {
         return OrderItemDto.builder()
                 .id(orderItem.getId())
                 .orderId(orderItem.getOrder().getId())
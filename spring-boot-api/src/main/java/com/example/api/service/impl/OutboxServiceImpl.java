@@ -0,0 +1,64 @@
+package com.example.api.service.impl;
+
+import com.example.api.service.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final String INSERT = """
+            INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload)
+            VALUES (?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public OutboxServiceImpl(DataSource dataSource, EntityManager entityManager, ObjectMapper objectMapper) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void publish(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        publishAll(aggregateType, eventType, Map.of(aggregateId, payload));
+    }
+
+    @Override
+    public void publishAll(String aggregateType, String eventType, Map<Long, ?> payloadsByAggregateId) {
+        if (payloadsByAggregateId.isEmpty()) {
+            return;
+        }
+        
+        // Flushing first takes the aggregate's row lock before the event ids are drawn, so two
+        // transactions writing the same aggregate number their events in commit order
+        entityManager.flush();
+        
+        List<Object[]> rows = new ArrayList<>();
+        payloadsByAggregateId.forEach((aggregateId, payload) ->
+                rows.add(new Object[]{aggregateType, aggregateId, eventType, toJson(payload)}));
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize outbox payload", e);
+        }
+    }
+}
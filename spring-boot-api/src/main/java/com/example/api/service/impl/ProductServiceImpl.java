@@ -1,18 +1,29 @@
 package com.example.api.service.impl;
 
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
 import com.example.api.dto.ProductDto;
+import com.example.api.event.OutboxEvent;
 import com.example.api.model.Product;
 import com.example.api.repository.ProductRepository;
+import com.example.api.service.ChangeFeedService;
+import com.example.api.service.OutboxService;
 import com.example.api.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,6 +32,8 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final OutboxService outboxService;
+    private final ChangeFeedService changeFeedService;
 
     @Override
     @Transactional(readOnly = true)
@@ -75,11 +88,66 @@ public class ProductServiceImpl implements ProductService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> getProducts(CursorRequest request) {
+        Sort sort = Cursors.sort(request, Cursors.PRODUCT_KEYS);
+        Window<Product> window = productRepository.findAllBy(
+                Cursors.position(request, sort, Cursors.PRODUCT_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, productRepository::count);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> getActiveProducts(CursorRequest request) {
+        Sort sort = Cursors.sort(request, Cursors.PRODUCT_KEYS);
+        Window<Product> window = productRepository.findByActiveTrue(
+                Cursors.position(request, sort, Cursors.PRODUCT_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, productRepository::countByActiveTrue);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> getProductsByCategory(String category, CursorRequest request) {
+        Sort sort = Cursors.sort(request, Cursors.PRODUCT_KEYS);
+        Window<Product> window = productRepository.findByCategory(category,
+                Cursors.position(request, sort, Cursors.PRODUCT_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, () -> productRepository.countByCategory(category));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> getProductsByPriceRange(BigDecimal minPrice, BigDecimal maxPrice, CursorRequest request) {
+        Sort sort = Cursors.sort(request, Cursors.PRODUCT_KEYS);
+        Window<Product> window = productRepository.findByPriceBetween(minPrice, maxPrice,
+                Cursors.position(request, sort, Cursors.PRODUCT_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, () -> productRepository.countByPriceBetween(minPrice, maxPrice));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDto> searchProductsByName(String name, CursorRequest request) {
+        Sort sort = Cursors.sort(request, Cursors.PRODUCT_KEYS);
+        Window<Product> window = productRepository.findByNameContainingIgnoreCase(name,
+                Cursors.position(request, sort, Cursors.PRODUCT_KEYS), sort, Cursors.limit(request));
+        return toCursorPage(window, sort, request, () -> productRepository.countByNameContainingIgnoreCase(name));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangePage<ProductDto> getProductChanges(ChangesRequest request) {
+        return changeFeedService.getChanges(OutboxEvent.PRODUCT, request,
+                ids -> productRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Product::getId, this::mapToDto)));
+    }
+
     @Override
     public ProductDto createProduct(ProductDto productDto) {
         Product product = mapToEntity(productDto);
         Product savedProduct = productRepository.save(product);
-        return mapToDto(savedProduct);
+        ProductDto result = mapToDto(savedProduct);
+        outboxService.publish(OutboxEvent.PRODUCT, savedProduct.getId(), "ProductCreated", result);
+        return result;
     }
 
     @Override
@@ -113,12 +181,18 @@ public class ProductServiceImpl implements ProductService {
         }
         
         Product updatedProduct = productRepository.save(existingProduct);
-        return mapToDto(updatedProduct);
+        ProductDto result = mapToDto(updatedProduct);
+        outboxService.publish(OutboxEvent.PRODUCT, id, "ProductUpdated", result);
+        return result;
     }
 
     @Override
     public void deleteProduct(Long id) {
-        productRepository.deleteById(id);
+        productRepository.findById(id).ifPresent(product -> {
+            productRepository.delete(product);
+            changeFeedService.recordDeletion(OutboxEvent.PRODUCT, id);
+            outboxService.publish(OutboxEvent.PRODUCT, id, "ProductDeleted", Map.of("productId", id));
+        });
     }
 
     @Override
@@ -126,7 +200,8 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setActive(true);
-        productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        outboxService.publish(OutboxEvent.PRODUCT, id, "ProductUpdated", mapToDto(savedProduct));
     }
 
     @Override
@@ -134,7 +209,16 @@ public class ProductServiceImpl implements ProductService {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
         product.setActive(false);
-        productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        outboxService.publish(OutboxEvent.PRODUCT, id, "ProductUpdated", mapToDto(savedProduct));
+    }
+    
+    private CursorPage<ProductDto> toCursorPage(Window<Product> window, Sort sort,
+                                                CursorRequest request, LongSupplier total) {
+        List<ProductDto> content = window.getContent().stream()
+                .map(this::mapToDto)
+                .collect(Collectors.toList());
+        return Cursors.page(window, content, sort, request, total);
     }
     
     // Helper methods for mapping between entity and DTO
@@ -0,0 +1,319 @@
+package com.example.api.service.impl;
+
+import com.example.api.dto.SalesRollupDto;
+import com.example.api.model.Money;
+import com.example.api.model.Order;
+import com.example.api.model.OrderItem;
+import com.example.api.service.SalesRollupService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Slf4j
+@Service
+@Transactional
+public class SalesRollupServiceImpl implements SalesRollupService {
+
+    private static final String UPSERT_STATUS = """
+            INSERT INTO daily_sales_by_status (day, status, shard, order_count, revenue, units)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (day, status, shard) DO UPDATE SET
+                order_count = daily_sales_by_status.order_count + EXCLUDED.order_count,
+                revenue = daily_sales_by_status.revenue + EXCLUDED.revenue,
+                units = daily_sales_by_status.units + EXCLUDED.units
+            """;
+
+    private static final String UPSERT_CATEGORY = """
+            INSERT INTO daily_sales_by_category (day, category, shard, order_count, revenue, units)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (day, category, shard) DO UPDATE SET
+                order_count = daily_sales_by_category.order_count + EXCLUDED.order_count,
+                revenue = daily_sales_by_category.revenue + EXCLUDED.revenue,
+                units = daily_sales_by_category.units + EXCLUDED.units
+            """;
+
+    // Corrects one day in a single statement: the rows computed from the orders minus what the rollup
+    // holds now, added to shard 0. Both sides come from the same snapshot, and a writer committing
+    // meanwhile only adds its own delta on top, so no table lock is needed and nothing is lost.
+    // Archived orders keep their totals and category lines in plain columns, so they are still counted.
+    private static final String REBUILD_STATUS_DAY = """
+            INSERT INTO daily_sales_by_status (day, status, shard, order_count, revenue, units)
+            SELECT ?::date, COALESCE(t.status, r.status), 0,
+                   COALESCE(t.order_count, 0) - COALESCE(r.order_count, 0),
+                   COALESCE(t.revenue, 0) - COALESCE(r.revenue, 0),
+                   COALESCE(t.units, 0) - COALESCE(r.units, 0)
+            FROM (
+                SELECT status, COUNT(*) AS order_count, SUM(total_amount) AS revenue, SUM(units) AS units
+                FROM (
+                    SELECT o.status, o.total_amount, COALESCE(i.units, 0) AS units
+                    FROM orders o
+                    LEFT JOIN LATERAL (SELECT SUM(oi.quantity) AS units FROM order_items oi WHERE oi.order_id = o.id) i ON TRUE
+                    WHERE o.created_at >= ? AND o.created_at < ?
+                    UNION ALL
+                    SELECT a.status, a.total_amount, a.units
+                    FROM archived_orders a
+                    WHERE a.created_at >= ? AND a.created_at < ?
+                ) o
+                GROUP BY status
+            ) t
+            FULL JOIN (
+                SELECT status, SUM(order_count) AS order_count, SUM(revenue) AS revenue, SUM(units) AS units
+                FROM daily_sales_by_status
+                WHERE day = ?
+                GROUP BY status
+            ) r ON r.status = t.status
+            WHERE COALESCE(t.order_count, 0) <> COALESCE(r.order_count, 0)
+               OR COALESCE(t.revenue, 0) <> COALESCE(r.revenue, 0)
+               OR COALESCE(t.units, 0) <> COALESCE(r.units, 0)
+            ON CONFLICT (day, status, shard) DO UPDATE SET
+                order_count = daily_sales_by_status.order_count + EXCLUDED.order_count,
+                revenue = daily_sales_by_status.revenue + EXCLUDED.revenue,
+                units = daily_sales_by_status.units + EXCLUDED.units
+            """;
+
+    private static final String REBUILD_CATEGORY_DAY = """
+            INSERT INTO daily_sales_by_category (day, category, shard, order_count, revenue, units)
+            SELECT ?::date, COALESCE(t.category, r.category), 0,
+                   COALESCE(t.order_count, 0) - COALESCE(r.order_count, 0),
+                   COALESCE(t.revenue, 0) - COALESCE(r.revenue, 0),
+                   COALESCE(t.units, 0) - COALESCE(r.units, 0)
+            FROM (
+                SELECT category, COUNT(DISTINCT order_id) AS order_count, SUM(revenue) AS revenue, SUM(units) AS units
+                FROM (
+                    SELECT COALESCE(p.category, '') AS category, o.id AS order_id,
+                           oi.price * oi.quantity AS revenue, oi.quantity AS units
+                    FROM orders o
+                    JOIN order_items oi ON oi.order_id = o.id
+                    JOIN products p ON p.id = oi.product_id
+                    WHERE o.status <> 'CANCELLED' AND o.created_at >= ? AND o.created_at < ?
+                    UNION ALL
+                    SELECT c.key, a.id, (c.value ->> 'revenue')::numeric, (c.value ->> 'units')::bigint
+                    FROM archived_orders a
+                    CROSS JOIN LATERAL jsonb_each(a.categories) c
+                    WHERE a.status <> 'CANCELLED' AND a.created_at >= ? AND a.created_at < ?
+                ) o
+                GROUP BY category
+            ) t
+            FULL JOIN (
+                SELECT category, SUM(order_count) AS order_count, SUM(revenue) AS revenue, SUM(units) AS units
+                FROM daily_sales_by_category
+                WHERE day = ?
+                GROUP BY category
+            ) r ON r.category = t.category
+            WHERE COALESCE(t.order_count, 0) <> COALESCE(r.order_count, 0)
+               OR COALESCE(t.revenue, 0) <> COALESCE(r.revenue, 0)
+               OR COALESCE(t.units, 0) <> COALESCE(r.units, 0)
+            ON CONFLICT (day, category, shard) DO UPDATE SET
+                order_count = daily_sales_by_category.order_count + EXCLUDED.order_count,
+                revenue = daily_sales_by_category.revenue + EXCLUDED.revenue,
+                units = daily_sales_by_category.units + EXCLUDED.units
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int shards;
+
+    public SalesRollupServiceImpl(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                  @Value("${reports.sales.shards:8}") int shards) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shards = Math.max(1, shards);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Snapshot snapshot(Order order) {
+        if (order == null || order.getCreatedAt() == null) {
+            return null;
+        }
+        
+        long units = 0;
+        Map<String, Line> categories = new HashMap<>();
+        for (OrderItem item : order.getOrderItems()) {
+            units += item.getQuantity();
+            if (order.getStatus() != Order.OrderStatus.CANCELLED) {
+                String category = Objects.requireNonNullElse(item.getProduct().getCategory(), "");
+                Money lineRevenue = money(item.getPrice()).times(item.getQuantity());
+                categories.merge(category, new Line(lineRevenue, item.getQuantity()),
+                        (a, b) -> new Line(a.getRevenue().plus(b.getRevenue()), a.getUnits() + b.getUnits()));
+            }
+        }
+        
+        return new Snapshot(LocalDate.ofInstant(order.getCreatedAt(), ZoneOffset.UTC),
+                order.getStatus().name(), money(order.getTotalAmount()), units, categories);
+    }
+    
+    // Entities may still hold the unrounded amount a caller set; the DECIMAL(10,2) column rounds it half up on write
+    private static Money money(BigDecimal amount) {
+        return Money.of(amount.setScale(Money.SCALE, RoundingMode.HALF_UP));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Snapshot before, Snapshot after) {
+        applyAll(Collections.singletonList(before), Collections.singletonList(after));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Collection<Snapshot> before, Collection<Snapshot> after) {
+        Map<List<Object>, Delta> statusDeltas = new HashMap<>();
+        Map<List<Object>, Delta> categoryDeltas = new HashMap<>();
+        before.forEach(snapshot -> collect(snapshot, -1, statusDeltas, categoryDeltas));
+        after.forEach(snapshot -> collect(snapshot, 1, statusDeltas, categoryDeltas));
+        
+        // Rows whose contribution did not change (e.g. categories on a PENDING -> SHIPPED move) are skipped
+        int shard = ThreadLocalRandom.current().nextInt(shards);
+        upsert(UPSERT_STATUS, statusDeltas, shard);
+        upsert(UPSERT_CATEGORY, categoryDeltas, shard);
+    }
+
+    // One short transaction per day, so a long range never holds row locks for the whole run
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void rebuild(LocalDate from, LocalDate to) {
+        int statusRows = 0;
+        int categoryRows = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            Date date = Date.valueOf(day);
+            Timestamp start = Timestamp.from(day.atStartOfDay(ZoneOffset.UTC).toInstant());
+            Timestamp end = Timestamp.from(day.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+            int[] corrected = transactionTemplate.execute(status -> new int[]{
+                    jdbcTemplate.update(REBUILD_STATUS_DAY, date, start, end, start, end, date),
+                    jdbcTemplate.update(REBUILD_CATEGORY_DAY, date, start, end, start, end, date)});
+            statusRows += corrected[0];
+            categoryRows += corrected[1];
+        }
+        
+        log.info("Rebuilt sales rollups for {} to {}: corrected {} status rows, {} category rows",
+                from, to, statusRows, categoryRows);
+    }
+
+    // Nightly safety net for changes made outside the application, e.g. manual SQL fixes
+    @Scheduled(cron = "${reports.sales.rebuild-cron:0 30 2 * * *}", zone = "UTC")
+    public void rebuildRecentDays() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        rebuild(today.minusDays(2), today.minusDays(1));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesRollupDto> getDailyTotalsByStatus(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT day, status, SUM(order_count), SUM(revenue), SUM(units)
+                FROM daily_sales_by_status
+                WHERE day BETWEEN ? AND ?
+                GROUP BY day, status
+                ORDER BY day, status
+                """, (rs, rowNum) -> SalesRollupDto.builder()
+                        .day(rs.getDate(1).toLocalDate())
+                        .status(rs.getString(2))
+                        .orderCount(rs.getLong(3))
+                        .revenue(rs.getBigDecimal(4))
+                        .units(rs.getLong(5))
+                        .build(),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesRollupDto> getTotalsByStatus(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT status, SUM(order_count), SUM(revenue), SUM(units)
+                FROM daily_sales_by_status
+                WHERE day BETWEEN ? AND ?
+                GROUP BY status
+                ORDER BY status
+                """, (rs, rowNum) -> SalesRollupDto.builder()
+                        .status(rs.getString(1))
+                        .orderCount(rs.getLong(2))
+                        .revenue(rs.getBigDecimal(3))
+                        .units(rs.getLong(4))
+                        .build(),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<SalesRollupDto> getTotalsByCategory(LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                SELECT category, SUM(order_count), SUM(revenue), SUM(units)
+                FROM daily_sales_by_category
+                WHERE day BETWEEN ? AND ?
+                GROUP BY category
+                ORDER BY SUM(revenue) DESC
+                """, (rs, rowNum) -> SalesRollupDto.builder()
+                        .category(rs.getString(1))
+                        .orderCount(rs.getLong(2))
+                        .revenue(rs.getBigDecimal(3))
+                        .units(rs.getLong(4))
+                        .build(),
+                Date.valueOf(from), Date.valueOf(to));
+    }
+
+    private static void collect(Snapshot snapshot, int sign, Map<List<Object>, Delta> statusDeltas,
+                                Map<List<Object>, Delta> categoryDeltas) {
+        if (snapshot == null) {
+            return;
+        }
+        
+        statusDeltas.computeIfAbsent(List.of(snapshot.getDay(), snapshot.getStatus()), key -> new Delta())
+                .add(sign, snapshot.getTotalAmount(), snapshot.getUnits());
+        snapshot.getCategories().forEach((category, line) ->
+                categoryDeltas.computeIfAbsent(List.of(snapshot.getDay(), category), key -> new Delta())
+                        .add(sign, line.getRevenue(), line.getUnits()));
+    }
+
+    private void upsert(String sql, Map<List<Object>, Delta> deltas, int shard) {
+        List<Object[]> batch = new ArrayList<>();
+        deltas.forEach((key, delta) -> {
+            if (!delta.isZero()) {
+                batch.add(new Object[]{Date.valueOf((LocalDate) key.get(0)), key.get(1), shard,
+                        delta.orderCount, Money.ofCents(delta.revenueCents).toBigDecimal(), delta.units});
+            }
+        });
+        
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch);
+        }
+    }
+
+    private static final class Delta {
+        private long orderCount;
+        // Accumulated in cents so a large batch does not allocate a BigDecimal per order
+        private long revenueCents;
+        private long units;
+
+        void add(int sign, Money amount, long quantity) {
+            orderCount += sign;
+            revenueCents = Math.addExact(revenueCents, Math.multiplyExact((long) sign, amount.getCents()));
+            units += (long) sign * quantity;
+        }
+
+        boolean isZero() {
+            return orderCount == 0 && units == 0 && revenueCents == 0;
+        }
+    }
+}
@@ -1,22 +1,31 @@
 package com.example.api.service.impl;
 
 import com.example.api.dto.UserDto;
+import com.example.api.event.OutboxEvent;
+import com.example.api.event.UserAccountChangedEvent;
 import com.example.api.model.Role;
 import com.example.api.model.User;
 import com.example.api.repository.RoleRepository;
 import com.example.api.repository.UserRepository;
+import com.example.api.security.AuthenticatedUser;
+import com.example.api.security.GrantedAuthorities;
+import com.example.api.security.UserDetailsCache;
+import com.example.api.service.OutboxService;
 import com.example.api.service.UserService;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -28,17 +37,27 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
 
+    // No transaction on a cache hit; the repository call opens its own on a miss
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return userDetailsCache.get(username, this::loadAccount);
+    }
+
+    private AuthenticatedUser loadAccount(String username) {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
-        Collection<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-                .map(role -> new SimpleGrantedAuthority(role.getName()))
+        Collection<GrantedAuthority> authorities = user.getRoles().stream()
+                .map(role -> GrantedAuthorities.of(role.getName()))
                 .collect(Collectors.toList());
 
-        return new org.springframework.security.core.userdetails.User(
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getUsername(),
                 user.getPassword(),
                 user.getEnabled(),
@@ -96,13 +115,16 @@ public class UserServiceImpl implements UserService {
             });
         }
         
-        return mapToDto(savedUser);
+        UserDto result = mapToDto(savedUser);
+        outboxService.publish(OutboxEvent.USER, savedUser.getId(), "UserCreated", result);
+        return result;
     }
 
     @Override
     public UserDto updateUser(Long id, UserDto userDto) {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        String previousUsername = existingUser.getUsername();
         
         // Update fields
         if (userDto.getUsername() != null) {
@@ -131,13 +153,20 @@ public class UserServiceImpl implements UserService {
         
         // Save updated user
         User updatedUser = userRepository.save(existingUser);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(previousUsername, updatedUser.getUsername()));
         
-        return mapToDto(updatedUser);
+        UserDto result = mapToDto(updatedUser);
+        outboxService.publish(OutboxEvent.USER, id, "UserUpdated", result);
+        return result;
     }
 
     @Override
     public void deleteUser(Long id) {
-        userRepository.deleteById(id);
+        userRepository.findById(id).ifPresent(user -> {
+            eventPublisher.publishEvent(new UserAccountChangedEvent(user.getUsername()));
+            userRepository.delete(user);
+            outboxService.publish(OutboxEvent.USER, id, "UserDeleted", Map.of("userId", id));
+        });
     }
 
     @Override
@@ -159,6 +188,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new RuntimeException("Role not found with name: " + roleName));
         
         user.getRoles().add(role);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(username));
+        outboxService.publish(OutboxEvent.USER, user.getId(), "UserUpdated", mapToDto(user));
     }
 
     @Override
@@ -170,6 +201,8 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new RuntimeException("Role not found with name: " + roleName));
         
         user.getRoles().remove(role);
+        eventPublisher.publishEvent(new UserAccountChangedEvent(username));
+        outboxService.publish(OutboxEvent.USER, user.getId(), "UserUpdated", mapToDto(user));
     }
     
     // Helper methods for mapping between entity and DTO
@@ -0,0 +1,14 @@
+-- PostgreSQL does not index foreign keys. order_items is read by order (entity graphs, findByOrder*,
+-- bulk status lines) and by product (findByProduct, the FK check on product deletes)
+CREATE INDEX idx_order_items_order_id_product_id ON order_items (order_id, product_id);
+CREATE INDEX idx_order_items_product_id ON order_items (product_id);
+
+-- findByStatus and the bulk status selection by current status and creation range
+CREATE INDEX idx_orders_status_created_at_id ON orders (status, created_at, id);
+
+-- findByCategoryAndActiveTrue; inactive products are never listed by category
+CREATE INDEX idx_products_active_category_id ON products (category, id) WHERE active = TRUE;
+
+-- findByNameContainingIgnoreCase filters on upper(name) LIKE '%...%', which only a trigram index can serve
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_products_name_trgm ON products USING gin (upper(name) gin_trgm_ops);
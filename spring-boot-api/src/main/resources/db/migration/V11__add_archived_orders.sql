@@ -0,0 +1,17 @@
+-- Closed orders moved out of orders/order_items by the archiver. Each order and its items are
+-- kept as one gzip-compressed JSON document (the OrderDto clients already receive); the plain
+-- columns are what ownership checks and sales rollup rebuilds need without decompressing it.
+CREATE TABLE archived_orders (
+    id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    units BIGINT NOT NULL,
+    -- category -> {revenue, units}, as counted by the daily_sales_by_category rollup
+    categories JSONB NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    archived_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    document BYTEA NOT NULL
+);
+
+CREATE INDEX idx_archived_orders_created_at ON archived_orders (created_at);
@@ -0,0 +1,14 @@
+-- /changes endpoints page through rows by (updated_at, id) after the caller's watermark
+CREATE INDEX idx_products_updated_at_id ON products (updated_at, id);
+CREATE INDEX idx_orders_updated_at_id ON orders (updated_at, id);
+
+-- Deleted rows leave a tombstone so change feed readers learn about the delete; purged after
+-- changes.tombstone-retention, after which older watermarks must resync from the start
+CREATE TABLE change_tombstones (
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    PRIMARY KEY (entity_type, entity_id)
+);
+
+CREATE INDEX idx_change_tombstones_type_deleted_at_id ON change_tombstones (entity_type, deleted_at, entity_id);
@@ -0,0 +1,10 @@
+-- Correction to V9: outbox ids come from BIGSERIAL, so they follow nextval() order, not commit
+-- order. Only events of one aggregate, numbered under its row lock, commit in id order.
+
+-- A delivery that throws parks its event until next_attempt_at, backing off with attempts.
+-- The relay skips every event of an aggregate with a parked event, so later aggregates move on
+ALTER TABLE outbox_events ADD COLUMN attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE outbox_events ADD COLUMN next_attempt_at TIMESTAMP WITH TIME ZONE;
+
+CREATE INDEX idx_outbox_events_parked ON outbox_events (aggregate_type, aggregate_id, next_attempt_at)
+    WHERE next_attempt_at IS NOT NULL;
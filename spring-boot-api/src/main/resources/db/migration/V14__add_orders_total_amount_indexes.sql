@@ -0,0 +1,4 @@
+-- The order cursor endpoints also sort by totalAmount; match their (total_amount, id) orderings
+-- the way V5 does for created_at
+CREATE INDEX idx_orders_total_amount_id ON orders (total_amount, id);
+CREATE INDEX idx_orders_user_id_total_amount_id ON orders (user_id, total_amount, id);
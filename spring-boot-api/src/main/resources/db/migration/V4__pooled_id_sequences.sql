@@ -0,0 +1,14 @@
+-- Hibernate reserves ids in blocks of 50 (pooled-lo): one nextval per 50 inserts, and the
+-- returned value is the first id of the block. Column defaults keep working for plain SQL inserts.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE roles_id_seq INCREMENT BY 50;
+ALTER SEQUENCE products_id_seq INCREMENT BY 50;
+ALTER SEQUENCE orders_id_seq INCREMENT BY 50;
+ALTER SEQUENCE order_items_id_seq INCREMENT BY 50;
+
+-- Restart each sequence just above the existing rows
+SELECT setval('users_id_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('roles_id_seq', COALESCE((SELECT MAX(id) FROM roles), 0) + 1, false);
+SELECT setval('products_id_seq', COALESCE((SELECT MAX(id) FROM products), 0) + 1, false);
+SELECT setval('orders_id_seq', COALESCE((SELECT MAX(id) FROM orders), 0) + 1, false);
+SELECT setval('order_items_id_seq', COALESCE((SELECT MAX(id) FROM order_items), 0) + 1, false);
@@ -0,0 +1,8 @@
+-- Indexes matching the (sort key, id) orderings used by the keyset /cursor endpoints
+CREATE INDEX idx_products_name_id ON products (name, id);
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_created_at_id ON products (created_at, id);
+CREATE INDEX idx_products_category_id ON products (category, id);
+CREATE INDEX idx_orders_created_at_id ON orders (created_at, id);
+CREATE INDEX idx_orders_user_id_id ON orders (user_id, id);
+CREATE INDEX idx_orders_user_id_created_at_id ON orders (user_id, created_at, id);
@@ -0,0 +1,23 @@
+-- Daily sales rollups, maintained in the same transaction as order writes.
+-- Each (day, key) is spread over a few shard rows so concurrent orders on the same day
+-- do not queue on one row lock; readers sum the shards.
+CREATE TABLE daily_sales_by_status (
+    day DATE NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    shard SMALLINT NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, status, shard)
+);
+
+-- Cancelled orders are left out; uncategorised products are grouped under ''
+CREATE TABLE daily_sales_by_category (
+    day DATE NOT NULL,
+    category VARCHAR(50) NOT NULL,
+    shard SMALLINT NOT NULL,
+    order_count BIGINT NOT NULL DEFAULT 0,
+    revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    units BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (day, category, shard)
+);
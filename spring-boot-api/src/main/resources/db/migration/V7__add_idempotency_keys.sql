@@ -0,0 +1,13 @@
+-- Responses to POSTs sent with an Idempotency-Key header, replayed when a client retries.
+-- A row without a status_code is a claim held by the node currently executing the request.
+CREATE TABLE idempotency_keys (
+    key_hash VARCHAR(64) PRIMARY KEY,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER,
+    response_body TEXT,
+    locked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,2 @@
+-- Lets fulfilment workers find the oldest PENDING orders without scanning fulfilled ones
+CREATE INDEX idx_orders_pending_created_at_id ON orders (created_at, id) WHERE status = 'PENDING';
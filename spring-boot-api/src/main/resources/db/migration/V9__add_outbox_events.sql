@@ -0,0 +1,17 @@
+-- Domain events written in the same transaction as the change they describe, relayed to
+-- subscribers and deleted once delivered. Ids come from BIGSERIAL so they follow insert order.
+CREATE TABLE outbox_events (
+    id BIGSERIAL PRIMARY KEY,
+    aggregate_type VARCHAR(50) NOT NULL,
+    aggregate_id BIGINT NOT NULL,
+    event_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Single row locked by whichever node is currently relaying, so delivery stays in id order
+CREATE TABLE outbox_relay_lock (
+    name VARCHAR(50) PRIMARY KEY
+);
+
+INSERT INTO outbox_relay_lock (name) VALUES ('relay');
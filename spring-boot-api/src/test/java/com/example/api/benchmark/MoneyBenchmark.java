@@ -0,0 +1,88 @@
+package com.example.api.benchmark;
+
+import com.example.api.model.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares totalling order lines (price x quantity, summed) with {@link BigDecimal} against
+ * {@link Money}. Not run by surefire; start it from the IDE or with
+ * {@code mvn test-compile exec:java -Dexec.mainClass=com.example.api.benchmark.MoneyBenchmark -Dexec.classpathScope=test}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyBenchmark {
+
+    @Param({"10", "1000"})
+    private int lines;
+
+    private BigDecimal[] decimalPrices;
+    private Money[] moneyPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        decimalPrices = new BigDecimal[lines];
+        moneyPrices = new Money[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            long cents = 100 + random.nextInt(99_900);
+            decimalPrices[i] = BigDecimal.valueOf(cents, 2);
+            moneyPrices[i] = Money.ofCents(cents);
+            quantities[i] = 1 + random.nextInt(10);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal totalBigDecimal() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.add(decimalPrices[i].multiply(BigDecimal.valueOf(quantities[i])));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public Money totalMoney() {
+        Money total = Money.ZERO;
+        for (int i = 0; i < lines; i++) {
+            total = total.plus(moneyPrices[i].times(quantities[i]));
+        }
+        return total;
+    }
+
+    // The rollup path: BigDecimal read from JDBC, converted once, accumulated in cents
+    @Benchmark
+    public BigDecimal totalMoneyFromBigDecimal() {
+        long cents = 0;
+        for (int i = 0; i < lines; i++) {
+            cents = Math.addExact(cents, Money.of(decimalPrices[i]).times(quantities[i]).getCents());
+        }
+        return Money.ofCents(cents).toBigDecimal();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MoneyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -2,8 +2,12 @@ package com.example.api.controller;
 
 import com.example.api.dto.AuthenticationRequest;
 import com.example.api.dto.AuthenticationResponse;
+import com.example.api.dto.RefreshTokenRequest;
 import com.example.api.dto.UserDto;
 import com.example.api.security.JwtService;
+import com.example.api.security.TokenRevocationService;
+import com.example.api.security.VerifiedToken;
+import io.jsonwebtoken.Jwts;
 import com.example.api.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +47,9 @@ public class AuthControllerTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthController authController;
 
@@ -97,4 +106,50 @@ public class AuthControllerTest {
         assertEquals("jwt-token", response.getBody().getToken());
         assertEquals("testuser", response.getBody().getUsername());
     }
+
+    @Test
+    void refreshShouldRotateRefreshToken() {
+        VerifiedToken refreshToken = new VerifiedToken(Jwts.claims()
+                .subject("testuser").id("jti-1").add("token_type", "refresh").build());
+        when(jwtService.parseToken("refresh-token")).thenReturn(refreshToken);
+        when(tokenRevocationService.revoke(refreshToken)).thenReturn(true);
+        when(userService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(userService.getUserByUsername("testuser")).thenReturn(Optional.of(userDto));
+        when(jwtService.generateToken(userDetails)).thenReturn("jwt-token");
+        when(jwtService.generateRefreshToken(userDetails)).thenReturn("new-refresh-token");
+
+        ResponseEntity<AuthenticationResponse> response =
+                authController.refresh(new RefreshTokenRequest("refresh-token"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("jwt-token", response.getBody().getToken());
+        assertEquals("new-refresh-token", response.getBody().getRefreshToken());
+    }
+
+    @Test
+    void refreshShouldRejectReusedRefreshToken() {
+        VerifiedToken refreshToken = new VerifiedToken(Jwts.claims()
+                .subject("testuser").id("jti-1").add("token_type", "refresh").build());
+        when(jwtService.parseToken("refresh-token")).thenReturn(refreshToken);
+        when(tokenRevocationService.revoke(refreshToken)).thenReturn(false);
+
+        ResponseEntity<AuthenticationResponse> response =
+                authController.refresh(new RefreshTokenRequest("refresh-token"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(jwtService, never()).generateToken(any(UserDetails.class));
+    }
+
+    @Test
+    void refreshShouldRejectAccessToken() {
+        VerifiedToken accessToken = new VerifiedToken(Jwts.claims()
+                .subject("testuser").id("jti-2").build());
+        when(jwtService.parseToken("jwt-token")).thenReturn(accessToken);
+
+        ResponseEntity<AuthenticationResponse> response =
+                authController.refresh(new RefreshTokenRequest("jwt-token"));
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatusCode());
+        verify(tokenRevocationService, never()).revoke(any(VerifiedToken.class));
+    }
 }
@@ -0,0 +1,84 @@
+package com.example.api.dto;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OrderDtoValidationTest {
+
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void createValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void nestedItemsShouldNotNeedAnOrderId() {
+        assertTrue(validator.validate(order(item(2))).isEmpty());
+    }
+
+    @Test
+    void nestedItemsWithMissingOrNonPositiveQuantityShouldBeRejected() {
+        assertEquals(Set.of("orderItems[0].quantity"), invalidPaths(order(item(-3))));
+        assertEquals(Set.of("orderItems[0].quantity"), invalidPaths(order(item(0))));
+        assertEquals(Set.of("orderItems[0].quantity"), invalidPaths(order(item(null))));
+    }
+
+    @Test
+    void amountsWithMoreThanTwoDecimalsShouldBeRejected() {
+        OrderDto order = order(item(1));
+        order.setTotalAmount(new BigDecimal("10.999"));
+        order.getOrderItems().get(0).setPrice(new BigDecimal("9.995"));
+
+        assertEquals(Set.of("totalAmount", "orderItems[0].price"), invalidPaths(order));
+    }
+
+    @Test
+    void standaloneItemsShouldStillNeedAnOrderId() {
+        assertEquals(Set.of("orderId"), validator.validate(item(1)).stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet()));
+    }
+
+    private Set<String> invalidPaths(OrderDto order) {
+        return validator.validate(order).stream()
+                .map(ConstraintViolation::getPropertyPath)
+                .map(Object::toString)
+                .collect(Collectors.toSet());
+    }
+
+    private OrderDto order(OrderItemDto item) {
+        return OrderDto.builder()
+                .userId(1L)
+                .totalAmount(new BigDecimal("19.98"))
+                .orderItems(List.of(item))
+                .build();
+    }
+
+    private OrderItemDto item(Integer quantity) {
+        return OrderItemDto.builder()
+                .productId(1L)
+                .quantity(quantity)
+                .price(new BigDecimal("9.99"))
+                .build();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.api.event;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OutboxRelayTest {
+
+    private DriverManagerDataSource dataSource;
+    private InMemoryOutboxSubscriber subscriber;
+    private AtomicBoolean failFirstDelivery;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:outbox-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=100",
+                "sa", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE outbox_events (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, "
+                    + "aggregate_type VARCHAR(50), aggregate_id BIGINT, event_type VARCHAR(50), payload TEXT, "
+                    + "created_at TIMESTAMP WITH TIME ZONE DEFAULT CURRENT_TIMESTAMP, "
+                    + "attempts INT NOT NULL DEFAULT 0, next_attempt_at TIMESTAMP WITH TIME ZONE)");
+            statement.execute("CREATE TABLE outbox_relay_lock (name VARCHAR(50) PRIMARY KEY)");
+            statement.execute("INSERT INTO outbox_relay_lock VALUES ('relay')");
+            statement.execute("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload) VALUES "
+                    + "('Order', 1, 'OrderCreated', '{}'), "
+                    + "('Order', 2, 'OrderCreated', '{}'), "
+                    + "('Order', 1, 'OrderStatusChanged', '{}')");
+        }
+        subscriber = new InMemoryOutboxSubscriber();
+        failFirstDelivery = new AtomicBoolean();
+    }
+
+    @Test
+    void relayShouldDeliverInIdOrderAndDeleteDeliveredEvents() throws Exception {
+        OutboxRelay relay = relay(subscriber);
+
+        relay.relay();
+
+        assertEquals(List.of(1L, 2L, 3L), subscriber.getEvents().stream().map(OutboxEvent::getId).toList());
+        assertEquals(0, countEvents());
+    }
+
+    @Test
+    void failedDeliveryShouldHoldBackLaterEventsOfSameAggregate() throws Exception {
+        failFirstDelivery.set(true);
+        OutboxRelay relay = relay(event -> {
+            if (event.getId() == 1L && failFirstDelivery.getAndSet(false)) {
+                throw new IllegalStateException("subscriber down");
+            }
+            subscriber.handle(event);
+        });
+
+        assertEquals(1, relay.relayBatch());
+        assertEquals(List.of(2L), subscriber.getEvents().stream().map(OutboxEvent::getId).toList());
+        assertEquals(2, countEvents());
+
+        assertEquals(2, relay.relayBatch());
+        assertEquals(List.of(2L, 1L, 3L), subscriber.getEvents().stream().map(OutboxEvent::getId).toList());
+    }
+
+    @Test
+    void failingAggregateShouldBeParkedSoOthersAreNotStarvedByFullBatches() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO outbox_events (aggregate_type, aggregate_id, event_type, payload) VALUES "
+                    + "('Order', 1, 'OrderUpdated', '{}'), "
+                    + "('Order', 3, 'OrderCreated', '{}')");
+        }
+        OutboxRelay relay = relay(event -> {
+            if (event.getAggregateId() == 1L) {
+                throw new IllegalStateException("subscriber rejects order 1");
+            }
+            subscriber.handle(event);
+        }, 2, Duration.ofMinutes(1));
+
+        assertEquals(1, relay.relayBatch());
+        // Without parking this batch would be ids 1 and 3 again, both of order 1, and order 3 would starve
+        assertEquals(1, relay.relayBatch());
+        assertEquals(0, relay.relayBatch());
+
+        assertEquals(List.of(2L, 5L), subscriber.getEvents().stream().map(OutboxEvent::getId).toList());
+        assertEquals(3, countEvents());
+        assertEquals(1, attempts(1L));
+    }
+
+    @Test
+    void parkedEventShouldBeRetriedOnceDueWithDoubledBackOff() throws Exception {
+        OutboxRelay relay = relay(event -> {
+            if (event.getAggregateId() == 1L) {
+                throw new IllegalStateException("subscriber rejects order 1");
+            }
+            subscriber.handle(event);
+        }, 10, Duration.ofMinutes(1));
+
+        Instant firstFailure = Instant.now();
+        assertEquals(1, relay.relayBatch());
+        assertEquals(1, attempts(1L));
+        assertBetween(firstFailure.plus(Duration.ofMinutes(1)), nextAttemptAt(1L), Duration.ofMinutes(1));
+
+        // Still parked, so nothing is read for order 1
+        assertEquals(0, relay.relayBatch());
+        assertEquals(1, attempts(1L));
+
+        // Once due it is retried, fails again and waits twice as long
+        execute("UPDATE outbox_events SET next_attempt_at = CURRENT_TIMESTAMP - INTERVAL '1' SECOND WHERE id = 1");
+        Instant secondFailure = Instant.now();
+        assertEquals(0, relay.relayBatch());
+        assertEquals(2, attempts(1L));
+        assertBetween(secondFailure.plus(Duration.ofMinutes(2)), nextAttemptAt(1L), Duration.ofMinutes(2));
+        assertEquals(2, countEvents());
+    }
+
+    @Test
+    void relayShouldSkipRunWhileAnotherNodeHoldsTheLock() throws Exception {
+        OutboxRelay relay = relay(subscriber);
+
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            other.setAutoCommit(false);
+            statement.executeQuery("SELECT name FROM outbox_relay_lock WHERE name = 'relay' FOR UPDATE").close();
+
+            assertEquals(0, relay.relayBatch());
+            other.rollback();
+        }
+
+        assertEquals(0, subscriber.getEvents().size());
+        assertEquals(3, countEvents());
+    }
+
+    private OutboxRelay relay(OutboxSubscriber outboxSubscriber) {
+        return relay(outboxSubscriber, 10, Duration.ZERO);
+    }
+
+    private OutboxRelay relay(OutboxSubscriber outboxSubscriber, int batchSize, Duration retryDelay) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("subscriber", outboxSubscriber);
+        return new OutboxRelay(dataSource, new DataSourceTransactionManager(dataSource),
+                beanFactory.getBeanProvider(OutboxSubscriber.class), new SimpleMeterRegistry(), batchSize,
+                retryDelay, retryDelay.multipliedBy(10));
+    }
+
+    private Instant nextAttemptAt(long id) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT next_attempt_at FROM outbox_events WHERE id = " + id)) {
+            rs.next();
+            return rs.getTimestamp(1).toInstant();
+        }
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static void assertBetween(Instant earliest, Instant actual, Duration delay) {
+        assertTrue(!actual.isBefore(earliest) && actual.isBefore(earliest.plusSeconds(5)),
+                () -> "expected next attempt about " + delay + " out, was " + actual);
+    }
+
+    private int attempts(long id) throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT attempts FROM outbox_events WHERE id = " + id)) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private int countEvents() throws Exception {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM outbox_events")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.api.integration;
+
+import com.example.api.dto.ChangePage;
+import com.example.api.dto.ChangesRequest;
+import com.example.api.event.OutboxEvent;
+import com.example.api.exception.InvalidCursorException;
+import com.example.api.exception.WatermarkExpiredException;
+import com.example.api.model.Product;
+import com.example.api.repository.ProductRepository;
+import com.example.api.service.ChangeFeedService;
+import com.example.api.service.impl.ChangeFeedServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:changes;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "changes.safety-lag=0s"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(ChangeFeedServiceImpl.class)
+public class ChangeFeedIntegrationTest {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createTombstoneTable() {
+        // Flyway is off for H2, so the table from V12 is created here
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS change_tombstones (entity_type VARCHAR(20) NOT NULL, "
+                + "entity_id BIGINT NOT NULL, deleted_at TIMESTAMP WITH TIME ZONE NOT NULL, "
+                + "PRIMARY KEY (entity_type, entity_id))");
+    }
+
+    @Test
+    void changesShouldBePagedInOrderAndWatermarkKeptWhenIdle() {
+        save("First");
+        save("Second");
+        save("Third");
+
+        ChangePage<String> first = changes(null, 2);
+        ChangePage<String> second = changes(first.getWatermark(), 2);
+        ChangePage<String> idle = changes(second.getWatermark(), 2);
+
+        assertEquals(List.of("First", "Second"), first.getChanged());
+        assertTrue(first.isHasMore());
+        assertEquals(List.of("Third"), second.getChanged());
+        assertFalse(second.isHasMore());
+        assertTrue(idle.getChanged().isEmpty());
+        assertEquals(second.getWatermark(), idle.getWatermark());
+    }
+
+    @Test
+    void updatesAndDeletesAfterWatermarkShouldBeReturned() throws InterruptedException {
+        Product kept = save("Kept");
+        Product removed = save("Removed");
+        save("Untouched");
+        String watermark = changes(null, 10).getWatermark();
+
+        Thread.sleep(5);
+        kept.setName("Renamed");
+        productRepository.saveAndFlush(kept);
+        productRepository.delete(removed);
+        productRepository.flush();
+        changeFeedService.recordDeletion(OutboxEvent.PRODUCT, removed.getId());
+
+        ChangePage<String> page = changes(watermark, 10);
+
+        assertEquals(List.of("Renamed"), page.getChanged());
+        assertEquals(List.of(removed.getId()), page.getDeleted());
+    }
+
+    @Test
+    void badOrExpiredWatermarksShouldBeRejected() {
+        String expired = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"at\":\"2000-01-01T00:00:00Z\",\"id\":\"1\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(InvalidCursorException.class, () -> changes("not-a-watermark", 10));
+        assertThrows(WatermarkExpiredException.class, () -> changes(expired, 10));
+    }
+
+    private ChangePage<String> changes(String watermark, int size) {
+        return changeFeedService.getChanges(OutboxEvent.PRODUCT,
+                ChangesRequest.builder().watermark(watermark).size(size).build(),
+                ids -> productRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Product::getId, Product::getName)));
+    }
+
+    private Product save(String name) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal("9.99"));
+        product.setQuantity(1);
+        product.setActive(true);
+        return productRepository.saveAndFlush(product);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.api.integration;
+
+import com.example.api.exception.InsufficientStockException;
+import com.example.api.model.Product;
+import com.example.api.repository.ProductRepository;
+import com.example.api.service.InventoryService;
+import com.example.api.service.impl.InventoryServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:inventory;MODE=PostgreSQL;LOCK_TIMEOUT=30000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.hikari.maximum-pool-size=32"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(InventoryServiceImpl.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class InventoryConcurrencyTest {
+
+    private static final int STOCK = 50;
+    private static final int BUYERS = 300;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentReservationsShouldNeverOversellHotProduct() throws Exception {
+        Product product = new Product();
+        product.setName("Flash Sale Item");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setQuantity(STOCK);
+        product.setActive(true);
+        Long productId = productRepository.save(product).getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                try {
+                    inventoryService.reserve(Map.of(productId, 1));
+                    return true;
+                } catch (InsufficientStockException e) {
+                    return false;
+                }
+            }));
+        }
+        start.countDown();
+
+        int reserved = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get(60, TimeUnit.SECONDS)) {
+                reserved++;
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(STOCK, reserved);
+        assertEquals(0, productRepository.findById(productId).orElseThrow().getQuantity());
+
+        inventoryService.release(Map.of(productId, 5));
+        assertEquals(5, productRepository.findById(productId).orElseThrow().getQuantity());
+    }
+}
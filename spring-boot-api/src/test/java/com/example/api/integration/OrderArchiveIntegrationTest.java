@@ -0,0 +1,241 @@
+package com.example.api.integration;
+
+import com.example.api.dto.OrderDto;
+import com.example.api.dto.OrderItemDto;
+import com.example.api.repository.OrderRepository;
+import com.example.api.service.OrderArchiveService;
+import com.example.api.service.SalesRollupService;
+import com.example.api.service.impl.InventoryServiceImpl;
+import com.example.api.service.impl.OrderArchiveServiceImpl;
+import com.example.api.service.impl.OutboxServiceImpl;
+import com.example.api.service.impl.SalesRollupServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the archiver against PostgreSQL, since its SQL ({@code FOR UPDATE SKIP LOCKED},
+ * {@code ?::jsonb}, {@code DELETE ... RETURNING}) does not run on H2. Skipped when Docker is not
+ * available.
+ */
+@DataJpaTest(properties = "orders.archive.min-age=1d")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({OrderArchiveServiceImpl.class, SalesRollupServiceImpl.class, InventoryServiceImpl.class,
+        OutboxServiceImpl.class, OrderArchiveIntegrationTest.Metrics.class})
+public class OrderArchiveIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Instant OLD = Instant.now().minus(10, ChronoUnit.DAYS).truncatedTo(ChronoUnit.SECONDS);
+    private static final LocalDate OLD_DAY = LocalDate.ofInstant(OLD, ZoneOffset.UTC);
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private OrderArchiveService orderArchiveService;
+
+    @Autowired
+    private SalesRollupService salesRollupService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private long userId;
+    private long bookId;
+    private long toolId;
+
+    @BeforeEach
+    void seed() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.execute("TRUNCATE archived_orders, order_items, orders, products, users, "
+                + "daily_sales_by_status, daily_sales_by_category, outbox_events CASCADE");
+
+        userId = jdbcTemplate.queryForObject(
+                "INSERT INTO users (username, email, password) VALUES ('archive', 'archive@example.com', 'x') "
+                        + "RETURNING id", Long.class);
+        bookId = insertProduct("Book", "BOOKS", "12.50");
+        toolId = insertProduct("Hammer", "TOOLS", "20.00");
+    }
+
+    @Test
+    void archiveNextBatchShouldMoveOldClosedOrdersAndDeleteTheirItems() {
+        long delivered = insertOrder("DELIVERED", OLD, "45.00", Map.of(bookId, 2, toolId, 1));
+        long cancelled = insertOrder("CANCELLED", OLD, "12.50", Map.of(bookId, 1));
+        long recent = insertOrder("DELIVERED", Instant.now(), "12.50", Map.of(bookId, 1));
+        long pending = insertOrder("PENDING", OLD, "20.00", Map.of(toolId, 1));
+
+        assertEquals(2, orderArchiveService.archiveNextBatch());
+
+        assertEquals(List.of(recent, pending), jdbcTemplate.queryForList(
+                "SELECT id FROM orders ORDER BY id", Long.class));
+        assertEquals(0, count("SELECT COUNT(*) FROM order_items WHERE order_id IN (?, ?)", delivered, cancelled));
+        assertEquals(List.of(delivered, cancelled), jdbcTemplate.queryForList(
+                "SELECT id FROM archived_orders ORDER BY id", Long.class));
+
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT user_id, status, total_amount, units, created_at, "
+                        + "categories -> 'BOOKS' ->> 'units' AS book_units, "
+                        + "(categories -> 'TOOLS' ->> 'revenue')::numeric AS tool_revenue "
+                        + "FROM archived_orders WHERE id = ?", delivered);
+        assertEquals(userId, ((Number) row.get("user_id")).longValue());
+        assertEquals("DELIVERED", row.get("status"));
+        assertEquals(0, new BigDecimal("45.00").compareTo((BigDecimal) row.get("total_amount")));
+        assertEquals(3L, ((Number) row.get("units")).longValue());
+        assertEquals(OLD, ((Timestamp) row.get("created_at")).toInstant());
+        assertEquals("2", row.get("book_units"));
+        assertEquals(0, new BigDecimal("20.00").compareTo((BigDecimal) row.get("tool_revenue")));
+
+        assertEquals(2, count("SELECT COUNT(*) FROM outbox_events WHERE event_type = 'OrderArchived'"));
+        assertEquals(0, orderArchiveService.archiveNextBatch());
+    }
+
+    @Test
+    void archiveNextBatchShouldSkipOrdersLockedByAnotherTransaction() throws Exception {
+        long locked = insertOrder("DELIVERED", OLD, "12.50", Map.of(bookId, 1));
+        long free = insertOrder("CANCELLED", OLD, "12.50", Map.of(bookId, 1));
+
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            other.setAutoCommit(false);
+            statement.execute("SELECT id FROM orders WHERE id = " + locked + " FOR UPDATE");
+
+            assertEquals(1, orderArchiveService.archiveNextBatch());
+            other.rollback();
+        }
+
+        assertEquals(List.of(locked), jdbcTemplate.queryForList("SELECT id FROM orders", Long.class));
+        assertEquals(List.of(free), jdbcTemplate.queryForList("SELECT id FROM archived_orders", Long.class));
+    }
+
+    @Test
+    void archivedDocumentShouldReadBackAsTheOrder() {
+        long id = insertOrder("DELIVERED", OLD, "45.00", Map.of(bookId, 2, toolId, 1));
+        orderArchiveService.archiveNextBatch();
+
+        OrderDto order = orderArchiveService.findArchivedOrder(id).orElseThrow();
+
+        assertEquals(id, order.getId());
+        assertEquals(userId, order.getUserId());
+        assertEquals("DELIVERED", order.getStatus());
+        assertEquals(0, new BigDecimal("45.00").compareTo(order.getTotalAmount()));
+        List<OrderItemDto> items = order.getOrderItems().stream()
+                .sorted(Comparator.comparing(OrderItemDto::getProductId)).toList();
+        assertEquals(2, items.size());
+        assertEquals(bookId, items.get(0).getProductId());
+        assertEquals(2, items.get(0).getQuantity());
+        assertEquals(0, new BigDecimal("12.50").compareTo(items.get(0).getPrice()));
+        assertEquals(toolId, items.get(1).getProductId());
+        assertEquals(1, items.get(1).getQuantity());
+
+        assertEquals(userId, orderArchiveService.findOwnerId(id).orElseThrow());
+        assertTrue(orderArchiveService.findArchivedOrder(id + 1000).isEmpty());
+    }
+
+    @Test
+    void deleteArchivedOrderShouldTakeItOutOfTheRollups() {
+        long id = insertOrder("DELIVERED", OLD, "45.00", Map.of(bookId, 2, toolId, 1));
+        transactionTemplate.executeWithoutResult(status -> salesRollupService.apply(null,
+                salesRollupService.snapshot(orderRepository.findWithItemsById(id).orElseThrow())));
+        orderArchiveService.archiveNextBatch();
+
+        assertEquals(0, new BigDecimal("45.00").compareTo(revenue("daily_sales_by_status")));
+        assertEquals(0, new BigDecimal("45.00").compareTo(revenue("daily_sales_by_category")));
+
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status -> orderArchiveService.deleteArchivedOrder(id)));
+
+        assertEquals(0, BigDecimal.ZERO.compareTo(revenue("daily_sales_by_status")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(revenue("daily_sales_by_category")));
+        assertEquals(0, count("SELECT COALESCE(SUM(order_count), 0) + COALESCE(SUM(units), 0) "
+                + "FROM daily_sales_by_status WHERE day = ?", Date.valueOf(OLD_DAY)));
+        assertEquals(0, count("SELECT COALESCE(SUM(order_count), 0) + COALESCE(SUM(units), 0) "
+                + "FROM daily_sales_by_category WHERE day = ?", Date.valueOf(OLD_DAY)));
+        assertEquals(0, count("SELECT COUNT(*) FROM archived_orders"));
+        assertEquals(1, count("SELECT COUNT(*) FROM outbox_events WHERE event_type = 'OrderDeleted'"));
+
+        // A delivered order no longer holds stock, so deleting it returns none
+        assertEquals(10, count("SELECT quantity FROM products WHERE id = ?", bookId));
+        assertEquals(10, count("SELECT quantity FROM products WHERE id = ?", toolId));
+
+        assertEquals(Boolean.FALSE, transactionTemplate.execute(status -> orderArchiveService.deleteArchivedOrder(id)));
+    }
+
+    private long insertProduct(String name, String category, String price) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO products (name, price, quantity, category) VALUES (?, ?, 10, ?) RETURNING id",
+                Long.class, name, new BigDecimal(price), category);
+    }
+
+    private long insertOrder(String status, Instant createdAt, String totalAmount, Map<Long, Integer> items) {
+        long id = jdbcTemplate.queryForObject(
+                "INSERT INTO orders (user_id, status, total_amount, created_at) VALUES (?, ?, ?, ?) RETURNING id",
+                Long.class, userId, status, new BigDecimal(totalAmount), Timestamp.from(createdAt));
+        items.forEach((productId, quantity) -> jdbcTemplate.update(
+                "INSERT INTO order_items (order_id, product_id, quantity, price) "
+                        + "SELECT ?, id, ?, price FROM products WHERE id = ?", id, quantity, productId));
+        return id;
+    }
+
+    private BigDecimal revenue(String rollup) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(revenue), 0) FROM " + rollup + " WHERE day = ?",
+                BigDecimal.class, Date.valueOf(OLD_DAY));
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.api.integration;
+
+import com.example.api.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:order-lock;MODE=PostgreSQL;LOCK_TIMEOUT=30000",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OrderLockIntegrationTest {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void guardedStatusUpdateShouldWaitForTheRowLock() throws Exception {
+        jdbcTemplate.update("INSERT INTO users (id, username, email, password, enabled, account_non_expired, "
+                + "account_non_locked, credentials_non_expired, created_at, updated_at) "
+                + "VALUES (1, 'buyer', 'buyer@example.com', 'x', TRUE, TRUE, TRUE, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO orders (id, user_id, status, total_amount, created_at, updated_at) "
+                + "VALUES (5, 1, 'PENDING', 9.99, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)");
+
+        // The same guarded UPDATE a bulk cancel runs
+        String cancel = "UPDATE orders SET status = 'CANCELLED' WHERE id = 5 AND status IN ('PENDING', 'PROCESSING')";
+        CompletableFuture<Integer> concurrentCancel = new CompletableFuture<>();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertEquals(Optional.of(5L), orderRepository.lockById(5L));
+            CompletableFuture.supplyAsync(() -> jdbcTemplate.update(cancel))
+                    .whenComplete((rows, error) -> {
+                        if (error != null) {
+                            concurrentCancel.completeExceptionally(error);
+                        } else {
+                            concurrentCancel.complete(rows);
+                        }
+                    });
+
+            assertThrows(TimeoutException.class, () -> concurrentCancel.get(500, TimeUnit.MILLISECONDS));
+            jdbcTemplate.update("UPDATE orders SET status = 'SHIPPED' WHERE id = 5");
+        });
+
+        // Once the lock holder commits, the guard sees SHIPPED and leaves the row alone
+        assertEquals(0, concurrentCancel.get(10, TimeUnit.SECONDS));
+        assertEquals("SHIPPED", jdbcTemplate.queryForObject("SELECT status FROM orders WHERE id = 5", String.class));
+        assertEquals(Optional.empty(), orderRepository.lockById(42L));
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.api.integration;
+
+import com.example.api.model.Order;
+import com.example.api.model.Product;
+import com.example.api.model.User;
+import com.example.api.repository.OrderItemRepository;
+import com.example.api.repository.OrderRepository;
+import com.example.api.repository.ProductRepository;
+import com.example.api.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every filtering repository query against a seeded PostgreSQL and fails when its plan reads
+ * a table without using an index for the filter. The SQL is captured from Hibernate and explained
+ * as a generic plan with sequential scans disabled, so the test checks that a usable index exists
+ * rather than depending on the planner's row estimates. Skipped when Docker is not available.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.api.integration.QueryPlanTest$SqlRecorder"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class QueryPlanTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Pattern PARAMETER = Pattern.compile("\\?");
+    private static boolean seeded;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderItemRepository orderItemRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void seed() {
+        if (seeded) {
+            return;
+        }
+        jdbcTemplate.execute("INSERT INTO users (username, email, password) "
+                + "SELECT 'user' || g, 'user' || g || '@example.com', 'x' FROM generate_series(1, 2000) g");
+        jdbcTemplate.execute("INSERT INTO products (name, price, quantity, category, active) "
+                + "SELECT 'Product ' || g, (g % 1000) + 0.99, 100, 'CATEGORY_' || (g % 50), g % 10 <> 0 "
+                + "FROM generate_series(1, 20000) g");
+        jdbcTemplate.execute("INSERT INTO orders (user_id, status, total_amount, created_at) "
+                + "SELECT u.id, (ARRAY['PENDING','PROCESSING','SHIPPED','DELIVERED','CANCELLED'])[1 + g % 5], 19.98, "
+                + "now() - g * interval '1 minute' "
+                + "FROM generate_series(1, 100000) g JOIN users u ON u.username = 'user' || (1 + g % 2000)");
+        jdbcTemplate.execute("INSERT INTO order_items (order_id, product_id, quantity, price) "
+                + "SELECT o.id, p.id, 1, 9.99 FROM orders o CROSS JOIN generate_series(0, 1) s "
+                + "JOIN products p ON p.name = 'Product ' || (1 + (o.id + s * 7919) % 20000)");
+        jdbcTemplate.execute("ANALYZE");
+        seeded = true;
+    }
+
+    @TestFactory
+    Stream<DynamicTest> filteringQueriesShouldUseIndexes() {
+        User user = userRepository.findByUsername("user42").orElseThrow();
+        Order order = orderRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Product product = productRepository.findAll(PageRequest.of(0, 1)).getContent().get(0);
+        Instant now = Instant.now();
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("20.00");
+
+        // findByActiveTrue/countByActiveTrue are left out: most products are active, so a scan is the right plan.
+        // Scrolls use the sort their index was built for; other sorts may legitimately walk the sort key's index.
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("UserRepository.findByUsername", () -> userRepository.findByUsername("user7"));
+        queries.put("UserRepository.findByEmail", () -> userRepository.findByEmail("user7@example.com"));
+        queries.put("UserRepository.existsByUsername", () -> userRepository.existsByUsername("user7"));
+        queries.put("UserRepository.existsByEmail", () -> userRepository.existsByEmail("user7@example.com"));
+
+        queries.put("ProductRepository.findByCategory", () -> productRepository.findByCategory("CATEGORY_7"));
+        queries.put("ProductRepository.findByCategory(scroll)", () -> productRepository.findByCategory(
+                "CATEGORY_7", ScrollPosition.keyset(), Sort.by("id"), Limit.of(20)));
+        queries.put("ProductRepository.countByCategory", () -> productRepository.countByCategory("CATEGORY_7"));
+        queries.put("ProductRepository.findByPriceBetween", () -> productRepository.findByPriceBetween(min, max));
+        queries.put("ProductRepository.findByPriceBetween(scroll)", () -> productRepository.findByPriceBetween(
+                min, max, ScrollPosition.keyset(), Sort.by("price", "id"), Limit.of(20)));
+        queries.put("ProductRepository.countByPriceBetween", () -> productRepository.countByPriceBetween(min, max));
+        queries.put("ProductRepository.findByCategoryAndActiveTrue",
+                () -> productRepository.findByCategoryAndActiveTrue("CATEGORY_7"));
+        queries.put("ProductRepository.findByNameContainingIgnoreCase",
+                () -> productRepository.findByNameContainingIgnoreCase("duct 1234"));
+        queries.put("ProductRepository.countByNameContainingIgnoreCase",
+                () -> productRepository.countByNameContainingIgnoreCase("duct 1234"));
+
+        queries.put("OrderRepository.findWithItemsById", () -> orderRepository.findWithItemsById(order.getId()));
+        queries.put("OrderRepository.findWithItemsByIdIn",
+                () -> orderRepository.findWithItemsByIdIn(List.of(order.getId(), order.getId() + 1)));
+        queries.put("OrderRepository.findByUser", () -> orderRepository.findByUser(user));
+        queries.put("OrderRepository.findByUser(scroll)", () -> orderRepository.findByUser(user,
+                ScrollPosition.keyset(), Sort.by("createdAt", "id"), Limit.of(20)));
+        queries.put("OrderRepository.findByUser(scroll by totalAmount)", () -> orderRepository.findByUser(user,
+                ScrollPosition.keyset(), Sort.by("totalAmount", "id"), Limit.of(20)));
+        queries.put("OrderRepository.findIdsByUser", () -> orderRepository.findIdsByUser(user, PageRequest.of(0, 20)));
+        queries.put("OrderRepository.countByUser", () -> orderRepository.countByUser(user));
+        queries.put("OrderRepository.findByStatus", () -> orderRepository.findByStatus(Order.OrderStatus.SHIPPED));
+        queries.put("OrderRepository.findByUserAndStatus",
+                () -> orderRepository.findByUserAndStatus(user, Order.OrderStatus.SHIPPED));
+        queries.put("OrderRepository.findByCreatedAtBetween",
+                () -> orderRepository.findByCreatedAtBetween(now.minus(1, ChronoUnit.HOURS), now));
+        queries.put("OrderRepository.lockPendingIds", () -> orderRepository.lockPendingIds(10));
+        queries.put("OrderRepository.findOwnerUsernameById",
+                () -> orderRepository.findOwnerUsernameById(order.getId()));
+
+        queries.put("OrderItemRepository.findByOrder", () -> orderItemRepository.findByOrder(order));
+        queries.put("OrderItemRepository.findByOrderId", () -> orderItemRepository.findByOrderId(order.getId()));
+        queries.put("OrderItemRepository.findByProduct", () -> orderItemRepository.findByProduct(product));
+        queries.put("OrderItemRepository.findByOrderAndProduct",
+                () -> orderItemRepository.findByOrderAndProduct(order, product));
+        queries.put("OrderItemRepository.findOwnerUsernameById",
+                () -> orderItemRepository.findOwnerUsernameById(firstOrderItemId()));
+
+        return queries.entrySet().stream().map(query -> DynamicTest.dynamicTest(query.getKey(), () -> {
+            SqlRecorder.STATEMENTS.clear();
+            query.getValue().run();
+            List<String> statements = new ArrayList<>(SqlRecorder.STATEMENTS);
+
+            assertFalse(statements.isEmpty(), "no SQL was captured");
+            for (String sql : statements) {
+                JsonNode plan = explain(sql);
+                List<String> fullScans = new ArrayList<>();
+                collectFullScans(plan.get(0).get("Plan"), fullScans);
+                assertTrue(fullScans.isEmpty(),
+                        () -> "Full scan of " + fullScans + " in\n" + sql + "\n" + plan.toPrettyString());
+            }
+        }));
+    }
+
+    private JsonNode explain(String sql) {
+        // GENERIC_PLAN accepts the $n placeholders without values, as a prepared statement would be planned
+        Matcher matcher = PARAMETER.matcher(sql);
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        while (matcher.find()) {
+            matcher.appendReplacement(numbered, "\\$" + (++index));
+        }
+        matcher.appendTail(numbered);
+
+        return jdbcTemplate.execute((ConnectionCallback<JsonNode>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN, FORMAT JSON) " + numbered)) {
+                    rs.next();
+                    return objectMapper.readTree(rs.getString(1));
+                } catch (Exception e) {
+                    throw new IllegalStateException("Could not explain " + sql, e);
+                } finally {
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+    }
+
+    // A scan that filters rows without an index condition reads the whole table, even when it walks an index
+    private static void collectFullScans(JsonNode node, List<String> fullScans) {
+        String type = node.path("Node Type").asText();
+        boolean unindexed = type.equals("Seq Scan")
+                || (type.startsWith("Index") && node.has("Filter") && !node.has("Index Cond"));
+        if (unindexed) {
+            fullScans.add(node.path("Relation Name").asText() + " (" + type + ", filter "
+                    + node.path("Filter").asText() + ")");
+        }
+        for (JsonNode child : node.path("Plans")) {
+            collectFullScans(child, fullScans);
+        }
+    }
+
+    private Long firstOrderItemId() {
+        return jdbcTemplate.queryForObject("SELECT MIN(id) FROM order_items", Long.class);
+    }
+
+    /**
+     * Registered with Hibernate through {@code hibernate.session_factory.statement_inspector}.
+     */
+    public static class SqlRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            if (sql.stripLeading().toLowerCase().startsWith("select")) {
+                STATEMENTS.add(sql);
+            }
+            return sql;
+        }
+    }
+}
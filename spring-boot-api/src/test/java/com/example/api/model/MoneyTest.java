@@ -0,0 +1,57 @@
+package com.example.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MoneyTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void conversionShouldRoundTripExactly() {
+        assertEquals(1999, Money.of(new BigDecimal("19.99")).getCents());
+        assertEquals(new BigDecimal("19.90"), Money.of(new BigDecimal("19.9")).toBigDecimal());
+        assertEquals(new BigDecimal("-0.05"), Money.of(new BigDecimal("-0.050")).toBigDecimal());
+        assertEquals(new BigDecimal("99999999.99"), Money.of(new BigDecimal("99999999.99")).toBigDecimal());
+    }
+
+    @Test
+    void conversionShouldRejectFractionsOfACent() {
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("0.001")));
+    }
+
+    @Test
+    void arithmeticShouldBeExact() {
+        Money price = Money.of(new BigDecimal("0.10"));
+
+        assertEquals(Money.of(new BigDecimal("0.30")), price.plus(price).plus(price));
+        assertEquals(Money.of(new BigDecimal("2.50")), price.times(25));
+        assertEquals(Money.ZERO, price.minus(price));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MAX_VALUE).plus(Money.ofCents(1)));
+    }
+
+    @Test
+    void comparisonsShouldFollowAmounts() {
+        Money min = Money.ofCents(1_000);
+        Money max = Money.ofCents(5_000);
+
+        assertTrue(min.compareTo(max) < 0);
+        assertTrue(max.compareTo(min) > 0);
+        assertEquals(0, Money.of(new BigDecimal("10.0")).compareTo(min));
+        assertEquals(min.hashCode(), Money.of(new BigDecimal("10.00")).hashCode());
+    }
+
+    @Test
+    void jsonShouldRoundTripAsDecimalNumber() throws Exception {
+        Money money = Money.of(new BigDecimal("12.30"));
+
+        String json = objectMapper.writeValueAsString(money);
+
+        assertEquals("12.30", json);
+        assertEquals(money, objectMapper.readValue(json, Money.class));
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.api.security;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    private JwtAuthenticationFilter filter;
+    private UserDetails userDetails;
+    private VerifiedToken verifiedToken;
+
+    @BeforeEach
+    void setUp() {
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService,
+                new VerifiedTokenCache(100, new SimpleMeterRegistry()), tokenRevocationService);
+        userDetails = new User("testuser", "password", new ArrayList<>());
+        verifiedToken = new VerifiedToken(Jwts.claims()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldParseTokenOnlyOncePerRequest() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(verifiedToken);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(verifiedToken, userDetails)).thenReturn(true);
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(jwtService, times(1)).parseToken(TOKEN);
+        verify(jwtService, never()).extractUsername(anyString());
+        verify(jwtService, never()).isTokenValid(anyString(), any(UserDetails.class));
+    }
+
+    @Test
+    void shouldSkipParsingAndUserLookupForCachedToken() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(verifiedToken);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(verifiedToken, userDetails)).thenReturn(true);
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals("testuser", SecurityContextHolder.getContext().getAuthentication().getName());
+        verify(jwtService, times(1)).parseToken(TOKEN);
+        verify(userDetailsService, times(1)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void shouldNotVerifyTokenUntilAuthenticationIsRead() throws Exception {
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        verifyNoInteractions(jwtService, userDetailsService, tokenRevocationService);
+    }
+
+    @Test
+    void shouldVerifyDeferredTokenOnlyOnce() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenReturn(verifiedToken);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(verifiedToken, userDetails)).thenReturn(true);
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.getContext().getAuthentication();
+
+        verify(jwtService, times(1)).parseToken(TOKEN);
+        verify(tokenRevocationService, times(1)).isRevoked(any());
+    }
+
+    @Test
+    void shouldLeaveRequestAnonymousForInvalidToken() throws Exception {
+        when(jwtService.parseToken(TOKEN)).thenThrow(new MalformedJwtException("bad token"));
+
+        filter.doFilter(bearerRequest(), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void cachedTokenShouldExpireAtExp() throws Exception {
+        VerifiedToken shortLived = new VerifiedToken(Jwts.claims()
+                .subject("testuser")
+                .expiration(new Date(System.currentTimeMillis() + 1_500))
+                .build());
+        when(jwtService.parseToken(TOKEN)).thenReturn(shortLived)
+                .thenThrow(new ExpiredJwtException(null, shortLived.getClaims(), "expired"));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(shortLived, userDetails)).thenReturn(true);
+
+        assertEquals("testuser", authenticate(TOKEN).getName());
+        Thread.sleep(Math.max(0, shortLived.getExpiration().getTime() - System.currentTimeMillis()) + 100);
+
+        assertNull(authenticate(TOKEN));
+        verify(jwtService, times(2)).parseToken(TOKEN);
+    }
+
+    @Test
+    void tamperedTokenShouldNotReuseCachedEntry() throws Exception {
+        String tampered = TOKEN.substring(0, TOKEN.length() - 1) + "X";
+        when(jwtService.parseToken(TOKEN)).thenReturn(verifiedToken);
+        when(jwtService.parseToken(tampered)).thenThrow(new SignatureException("signature mismatch"));
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(verifiedToken, userDetails)).thenReturn(true);
+
+        assertEquals("testuser", authenticate(TOKEN).getName());
+
+        assertNull(authenticate(tampered));
+        verify(jwtService, times(1)).parseToken(tampered);
+        verify(userDetailsService, times(1)).loadUserByUsername("testuser");
+    }
+
+    @Test
+    void statelessModeShouldTrustClaimsWithinMaxTokenAge() throws Exception {
+        enableStateless();
+        VerifiedToken token = statelessToken(Duration.ofMinutes(1));
+        AuthenticatedUser principal = new AuthenticatedUser(7L, "testuser", "",
+                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        when(jwtService.parseToken(TOKEN)).thenReturn(token);
+        when(jwtService.toUserDetails(token)).thenReturn(principal);
+
+        Authentication authentication = authenticate(TOKEN);
+
+        assertEquals(principal, authentication.getPrincipal());
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void statelessModeShouldLoadUserForTokensOlderThanMaxTokenAge() throws Exception {
+        enableStateless();
+        VerifiedToken token = statelessToken(Duration.ofMinutes(20));
+        when(jwtService.parseToken(TOKEN)).thenReturn(token);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(token, userDetails)).thenReturn(true);
+
+        assertEquals(userDetails, authenticate(TOKEN).getPrincipal());
+        verify(jwtService, never()).toUserDetails(any());
+    }
+
+    @Test
+    void statelessModeShouldLoadUserWhenTokenHasNoRoleClaims() throws Exception {
+        enableStateless();
+        VerifiedToken token = statelessToken(Duration.ofMinutes(1));
+        when(jwtService.parseToken(TOKEN)).thenReturn(token);
+        when(jwtService.toUserDetails(token)).thenReturn(null);
+        when(userDetailsService.loadUserByUsername("testuser")).thenReturn(userDetails);
+        when(jwtService.isTokenValid(token, userDetails)).thenReturn(true);
+
+        assertEquals(userDetails, authenticate(TOKEN).getPrincipal());
+    }
+
+    private void enableStateless() {
+        ReflectionTestUtils.setField(filter, "statelessEnabled", true);
+        ReflectionTestUtils.setField(filter, "maxTokenAge", Duration.ofMinutes(15));
+    }
+
+    private VerifiedToken statelessToken(Duration age) {
+        long now = System.currentTimeMillis();
+        return new VerifiedToken(Jwts.claims()
+                .subject("testuser")
+                .issuedAt(new Date(now - age.toMillis()))
+                .expiration(new Date(now + 60_000))
+                .build());
+    }
+
+    // Runs one request through the filter and returns the authentication it resolved
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(bearerRequest(token), new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private MockHttpServletRequest bearerRequest() {
+        return bearerRequest(TOKEN);
+    }
+
+    private MockHttpServletRequest bearerRequest(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders");
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
@@ -1,22 +1,35 @@
 package com.example.api.security;
 
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.security.KeyPair;
 import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 public class JwtServiceTest {
 
+    private static final String LEGACY_SECRET = "veryLongAndSecureSecretKeyForJwtSigningThatShouldBeAtLeast256BitsLong";
+
+    @Spy
+    private JwtKeyStore jwtKeyStore = new JwtKeyStore();
+
     @InjectMocks
     private JwtService jwtService;
 
@@ -29,7 +42,7 @@ public class JwtServiceTest {
         try {
             java.lang.reflect.Field secretKeyField = JwtService.class.getDeclaredField("secretKey");
             secretKeyField.setAccessible(true);
-            secretKeyField.set(jwtService, "veryLongAndSecureSecretKeyForJwtSigningThatShouldBeAtLeast256BitsLong");
+            secretKeyField.set(jwtService, LEGACY_SECRET);
             
             java.lang.reflect.Field jwtExpirationField = JwtService.class.getDeclaredField("jwtExpiration");
             jwtExpirationField.setAccessible(true);
@@ -38,6 +51,9 @@ public class JwtServiceTest {
             java.lang.reflect.Field issuerField = JwtService.class.getDeclaredField("issuer");
             issuerField.setAccessible(true);
             issuerField.set(jwtService, "spring-boot-api");
+            
+            jwtKeyStore.init();
+            jwtService.init();
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -64,4 +80,55 @@ public class JwtServiceTest {
         boolean isValid = jwtService.isTokenValid(token, otherUser);
         assertFalse(isValid);
     }
+
+    @Test
+    void parseTokenShouldExposeVerifiedClaims() {
+        VerifiedToken verifiedToken = jwtService.parseToken(token);
+        assertEquals("testuser", verifiedToken.getUsername());
+        assertEquals("spring-boot-api", verifiedToken.getClaims().getIssuer());
+        assertFalse(verifiedToken.isExpired());
+    }
+
+    @Test
+    void validatingParsedTokenShouldNotParseAgain() throws Exception {
+        java.lang.reflect.Field parserField = JwtService.class.getDeclaredField("jwtParser");
+        parserField.setAccessible(true);
+        JwtParser parser = spy((JwtParser) parserField.get(jwtService));
+        parserField.set(jwtService, parser);
+
+        VerifiedToken verifiedToken = jwtService.parseToken(token);
+        assertTrue(jwtService.isTokenValid(verifiedToken, userDetails));
+
+        verify(parser, times(1)).parseSignedClaims(token);
+    }
+
+    @Test
+    void generatedTokenShouldBeSignedWithActiveKey() {
+        String kid = jwtKeyStore.getActiveKey().getKid();
+        assertNotNull(jwtKeyStore.findVerificationKey(kid));
+        assertTrue(jwtKeyStore.getJwkSetJson().contains(kid));
+        assertEquals("testuser", jwtService.parseToken(token).getUsername());
+    }
+
+    @Test
+    void legacyHs256TokenShouldStillVerify() {
+        String legacyToken = Jwts.builder()
+                .subject("testuser")
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(LEGACY_SECRET)))
+                .compact();
+
+        assertEquals("testuser", jwtService.parseToken(legacyToken).getUsername());
+    }
+
+    @Test
+    void tokenSignedWithUnknownKeyShouldBeRejected() {
+        KeyPair otherKey = Jwts.SIG.RS256.keyPair().build();
+        String forgedToken = Jwts.builder()
+                .header().keyId("unknown").and()
+                .subject("testuser")
+                .signWith(otherKey.getPrivate(), Jwts.SIG.RS256)
+                .compact();
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(forgedToken));
+    }
 }
@@ -0,0 +1,180 @@
+package com.example.api.security;
+
+import com.example.api.model.Order;
+import com.example.api.model.OrderItem;
+import com.example.api.model.Product;
+import com.example.api.model.User;
+import com.example.api.repository.OrderItemRepository;
+import com.example.api.repository.OrderRepository;
+import com.example.api.repository.ProductRepository;
+import com.example.api.service.InventoryService;
+import com.example.api.service.OrderArchiveService;
+import com.example.api.service.SalesRollupService;
+import com.example.api.service.impl.OrderItemServiceImpl;
+import com.example.api.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderSecurityTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Spy
+    private OrderLookupCache orderLookupCache = new OrderLookupCache();
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private OrderSecurity orderSecurity;
+    private OrderItemServiceImpl orderItemService;
+
+    @BeforeEach
+    void setUp() {
+        orderSecurity = new OrderSecurity(orderRepository, orderItemRepository, orderLookupCache,
+                orderArchiveService);
+        orderItemService = new OrderItemServiceImpl(orderItemRepository, orderRepository, productRepository,
+                orderLookupCache, orderArchiveService, salesRollupService, inventoryService);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void ownershipCheckShouldReadOnlyTheOwnerIdOncePerRequest() {
+        authenticate(new AuthenticatedUser(1L, "owner", "", List.of()));
+        when(orderRepository.findOwnerIdById(5L)).thenReturn(Optional.of(1L));
+
+        assertTrue(orderSecurity.isOrderOwner(5L));
+        assertTrue(orderSecurity.isOrderOwner(5L));
+
+        verify(orderRepository, times(1)).findOwnerIdById(5L);
+        verify(orderRepository, never()).findWithItemsById(any());
+        verify(orderRepository, never()).findOwnerUsernameById(any());
+    }
+
+    @Test
+    void otherUsersOrderShouldBeDeniedWithoutLoadingIt() {
+        authenticate(new AuthenticatedUser(2L, "other", "", List.of()));
+        when(orderRepository.findOwnerIdById(5L)).thenReturn(Optional.of(1L));
+
+        assertFalse(orderSecurity.isOrderOwner(5L));
+        verify(orderRepository, never()).findWithItemsById(any());
+    }
+
+    @Test
+    void archivedOrderShouldBeCheckedAgainstTheArchivedOwner() {
+        authenticate(new AuthenticatedUser(1L, "owner", "", List.of()));
+        when(orderRepository.findOwnerIdById(9L)).thenReturn(Optional.empty());
+        when(orderArchiveService.findOwnerId(9L)).thenReturn(Optional.of(1L));
+        when(orderRepository.findOwnerIdById(10L)).thenReturn(Optional.empty());
+        when(orderArchiveService.findOwnerId(10L)).thenReturn(Optional.empty());
+
+        assertTrue(orderSecurity.isOrderOwner(9L));
+        assertFalse(orderSecurity.isOrderOwner(10L));
+    }
+
+    @Test
+    void orderReadAfterOwnershipCheckShouldDoItsOwnLoad() {
+        authenticate(new AuthenticatedUser(1L, "owner", "", List.of()));
+        when(orderRepository.findOwnerIdById(5L)).thenReturn(Optional.of(1L));
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(order(5L, 1L)));
+
+        assertTrue(orderSecurity.isOrderOwner(5L));
+        assertEquals(5L, orderService.getOrderById(5L).orElseThrow().getId());
+
+        verify(orderRepository, times(1)).findWithItemsById(5L);
+    }
+
+    @Test
+    void itemReadAfterOwnershipCheckShouldSkipTheExistenceCheck() {
+        authenticate(new AuthenticatedUser(1L, "owner", "", List.of()));
+        when(orderRepository.findOwnerIdById(5L)).thenReturn(Optional.of(1L));
+        when(orderItemRepository.findByOrderId(5L)).thenReturn(List.of());
+        when(orderArchiveService.findArchivedOrder(5L)).thenReturn(Optional.empty());
+
+        assertTrue(orderSecurity.isOrderOwner(5L));
+        assertTrue(orderItemService.getOrderItemsByOrderId(5L).isEmpty());
+
+        verify(orderItemRepository, times(1)).findByOrderId(5L);
+        verify(orderRepository, never()).existsById(any());
+        verify(orderRepository, never()).findWithItemsById(any());
+    }
+
+    @Test
+    void principalWithoutIdShouldUseOwnerProjection() {
+        authenticate(new org.springframework.security.core.userdetails.User("owner", "", List.of()));
+        when(orderRepository.findOwnerUsernameById(5L)).thenReturn(Optional.of("owner"));
+
+        assertTrue(orderSecurity.isOrderOwner(5L));
+        assertTrue(orderSecurity.isOrderOwner(5L));
+
+        verify(orderRepository, times(1)).findOwnerUsernameById(5L);
+        verify(orderRepository, never()).findWithItemsById(any());
+    }
+
+    private void authenticate(Object principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private Order order(Long id, Long userId) {
+        User user = new User();
+        user.setId(userId);
+        Product product = new Product();
+        product.setId(3L);
+        product.setName("Widget");
+        OrderItem item = new OrderItem();
+        item.setId(8L);
+        item.setProduct(product);
+        item.setQuantity(2);
+        item.setPrice(new BigDecimal("4.50"));
+
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("9.00"));
+        order.addOrderItem(item);
+        return order;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.api.security;
+
+import com.example.api.exception.GlobalExceptionHandler;
+import com.example.api.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor hashingExecutor;
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingExecutor = new PasswordHashingExecutor(1, 1, 2, meterRegistry);
+        callers = Executors.newFixedThreadPool(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        hashingExecutor.shutdown();
+    }
+
+    @Test
+    void executeShouldReturnTaskResult() {
+        assertEquals("hash", hashingExecutor.execute("encode", () -> "hash"));
+        assertEquals(1, meterRegistry.get("auth.password-hashing.latency").tag("operation", "encode").timer().count());
+    }
+
+    @Test
+    void executeShouldFailFastWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // The blocker must hold the only worker before the filler is queued behind it
+        callers.submit(() -> hashingExecutor.execute("matches", () -> release.await(5, TimeUnit.SECONDS)));
+        awaitGauge("auth.password-hashing.active", 1);
+        callers.submit(() -> hashingExecutor.execute("matches", () -> true));
+        awaitGauge("auth.password-hashing.queue.depth", 1);
+
+        ServiceUnavailableException ex = assertThrows(ServiceUnavailableException.class,
+                () -> hashingExecutor.execute("matches", () -> true));
+        assertEquals(2, ex.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password-hashing.rejected").counter().count());
+
+        release.countDown();
+    }
+
+    @Test
+    void rejectionWrappedByAuthenticationProviderShouldStillMapTo503() {
+        ServiceUnavailableException rejected = new ServiceUnavailableException("busy", 2);
+
+        ResponseEntity<?> response = new GlobalExceptionHandler().handleInternalAuthenticationServiceException(
+                new InternalAuthenticationServiceException(rejected.getMessage(), rejected));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+
+    private void awaitGauge(String name, double atLeast) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (meterRegistry.get(name).gauge().value() < atLeast && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(atLeast, meterRegistry.get(name).gauge().value());
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties.Limit principal = new RateLimitProperties.Limit();
+        principal.setCapacity(2);
+        principal.setRefillPerSecond(0.001);
+
+        RateLimitProperties.Limit ip = new RateLimitProperties.Limit();
+        ip.setCapacity(3);
+        ip.setRefillPerSecond(0.001);
+
+        RateLimitProperties.Route route = new RateLimitProperties.Route();
+        route.setPattern("/api/products/search");
+        route.setPrincipal(principal);
+        route.setIp(ip);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(route));
+
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(properties, new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldRejectAnonymousClientOnceIpBucketIsEmpty() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform("/api/products/search", "10.0.0.1").getStatus());
+        }
+
+        MockHttpServletResponse rejected = perform("/api/products/search", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(200, perform("/api/products/search", "10.0.0.2").getStatus());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.throttled").tag("limit", "ip").counter().count());
+    }
+
+    @Test
+    void shouldLimitAuthenticatedUserAcrossAddresses() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("testuser", null, List.of()));
+
+        assertEquals(200, perform("/api/products/search", "10.0.0.1").getStatus());
+        assertEquals(200, perform("/api/products/search", "10.0.0.2").getStatus());
+
+        assertEquals(429, perform("/api/products/search", "10.0.0.3").getStatus());
+        assertEquals(1.0, meterRegistry.get("http.server.requests.throttled").tag("limit", "principal").counter().count());
+    }
+
+    @Test
+    void shouldNotLimitUnmatchedRoutes() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("/api/products", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void tokenBucketShouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(1, 10, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(100_000_000L, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(100_000_000L));
+    }
+
+    private MockHttpServletResponse perform(String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.api.security;
+
+import com.example.api.repository.RevokedTokenRepository;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @InjectMocks
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenRevocationService, "expectedInsertions", 1000);
+        ReflectionTestUtils.setField(tokenRevocationService, "falsePositiveRate", 0.01);
+        when(revokedTokenRepository.findActiveJtis(any(Instant.class))).thenReturn(List.of());
+        tokenRevocationService.init();
+    }
+
+    @Test
+    void revokeShouldNotReloadEveryActiveJti() {
+        when(revokedTokenRepository.insertIfAbsent(anyString(), any(Instant.class))).thenReturn(1);
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+
+        assertTrue(tokenRevocationService.revoke(token("jti-1")));
+
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+        verify(revokedTokenRepository, times(1)).findActiveJtis(any(Instant.class));
+    }
+
+    @Test
+    void refreshShouldKeepLocalRevocationTheTableReadMissed() {
+        when(revokedTokenRepository.insertIfAbsent(anyString(), any(Instant.class))).thenReturn(1);
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+        tokenRevocationService.revoke(token("jti-1"));
+
+        // The scheduled rebuild reads the table before the revoking transaction is visible
+        tokenRevocationService.refresh();
+
+        assertTrue(tokenRevocationService.isRevoked("jti-1"));
+    }
+
+    private VerifiedToken token(String jti) {
+        return new VerifiedToken(Jwts.claims()
+                .id(jti)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build());
+    }
+}
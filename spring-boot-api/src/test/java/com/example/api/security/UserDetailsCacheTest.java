@@ -0,0 +1,84 @@
+package com.example.api.security;
+
+import com.example.api.event.UserAccountChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserDetailsCacheTest {
+
+    private UserDetailsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserDetailsCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getShouldLoadAccountOnlyOnce() {
+        cache.get("alice", username -> load(username, true, "ROLE_USER"));
+        cache.get("alice", username -> load(username, true, "ROLE_USER"));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void roleChangeShouldTakeEffectAfterEvent() {
+        cache.get("alice", username -> load(username, true, "ROLE_USER"));
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+
+        assertEquals(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")),
+                List.copyOf(cache.get("alice", username -> load(username, true, "ROLE_ADMIN")).getAuthorities()));
+    }
+
+    @Test
+    void disableShouldTakeEffectAfterEvent() {
+        cache.get("alice", username -> load(username, true, "ROLE_USER"));
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+
+        assertFalse(cache.get("alice", username -> load(username, false, "ROLE_USER")).isEnabled());
+    }
+
+    @Test
+    void renameShouldDropOldAndNewUsernames() {
+        cache.get("alice", username -> load(username, true, "ROLE_USER"));
+        cache.get("alicia", username -> load(username, true, "ROLE_USER"));
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice", "alicia"));
+        cache.get("alice", username -> load(username, true, "ROLE_USER"));
+        cache.get("alicia", username -> load(username, true, "ROLE_USER"));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void loadOverlappingAccountChangeShouldNotBeCached() {
+        // The account changes and its event fires while this load is still running
+        cache.get("alice", username -> {
+            AuthenticatedUser stale = load(username, true, "ROLE_ADMIN");
+            cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+            return stale;
+        });
+
+        assertFalse(cache.get("alice", username -> load(username, false, "ROLE_USER")).isEnabled());
+        assertEquals(2, loads.get());
+    }
+
+    private AuthenticatedUser load(String username, boolean enabled, String role) {
+        loads.incrementAndGet();
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority(role));
+        return new AuthenticatedUser(1L, username, "password", enabled, true, true, true, authorities);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.api.security;
+
+import com.example.api.event.UserAccountChangedEvent;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void accountChangeShouldDropOnlyThatUsersTokens() {
+        put("alice-1", "alice", cache.generation());
+        put("alice-2", "alice", cache.generation());
+        put("bob-1", "bob", cache.generation());
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+
+        assertNull(cache.get("alice-1"));
+        assertNull(cache.get("alice-2"));
+        assertNotNull(cache.get("bob-1"));
+    }
+
+    @Test
+    void tokenResolvedBeforeAccountChangeShouldNotBeCached() {
+        long generation = cache.generation();
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+
+        put("alice-1", "alice", generation);
+
+        assertNull(cache.get("alice-1"));
+    }
+
+    @Test
+    void tokensCachedAgainAfterAccountChangeShouldBeDroppedByTheNextOne() {
+        put("alice-1", "alice", cache.generation());
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+        put("alice-1", "alice", cache.generation());
+
+        cache.onUserAccountChanged(new UserAccountChangedEvent("alice"));
+
+        assertNull(cache.get("alice-1"));
+    }
+
+    private void put(String token, String username, long generation) {
+        VerifiedToken verifiedToken = new VerifiedToken(Jwts.claims()
+                .subject(username)
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .build());
+        cache.put(token, verifiedToken, new User(username, "", List.of()), generation);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.api.service;
+
+import com.example.api.dto.BulkStatusRequest;
+import com.example.api.model.Order;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkOrderStatusServiceTest {
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Test
+    void transitionsShouldOnlyMoveForwardOrCancelOpenOrders() {
+        assertEquals(EnumSet.of(Order.OrderStatus.PENDING, Order.OrderStatus.PROCESSING),
+                Order.OrderStatus.CANCELLED.allowedPredecessors());
+        assertEquals(EnumSet.of(Order.OrderStatus.SHIPPED), Order.OrderStatus.DELIVERED.allowedPredecessors());
+        assertTrue(Order.OrderStatus.PENDING.allowedPredecessors().isEmpty());
+        
+        // Delivered and cancelled orders are final for bulk transitions
+        assertTrue(Arrays.stream(Order.OrderStatus.values()).noneMatch(status ->
+                status.allowedPredecessors().contains(Order.OrderStatus.DELIVERED)
+                        || status.allowedPredecessors().contains(Order.OrderStatus.CANCELLED)));
+    }
+
+    @Test
+    void requestShouldSelectEitherIdsOrFilter() {
+        BulkStatusRequest byIds = BulkStatusRequest.builder()
+                .status(Order.OrderStatus.SHIPPED).ids(List.of(1L, 2L)).build();
+        BulkStatusRequest byFilter = BulkStatusRequest.builder()
+                .status(Order.OrderStatus.SHIPPED).currentStatus(Order.OrderStatus.PROCESSING).build();
+        BulkStatusRequest both = BulkStatusRequest.builder()
+                .status(Order.OrderStatus.SHIPPED).ids(List.of(1L)).currentStatus(Order.OrderStatus.PROCESSING).build();
+        BulkStatusRequest neither = BulkStatusRequest.builder().status(Order.OrderStatus.SHIPPED).build();
+
+        assertTrue(validator.validate(byIds).isEmpty());
+        assertTrue(validator.validate(byFilter).isEmpty());
+        assertFalse(validator.validate(both).isEmpty());
+        assertFalse(validator.validate(neither).isEmpty());
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.api.service;
+
+import com.example.api.service.impl.ExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ExportServiceTest {
+
+    @Test
+    void exportUsersShouldWriteOneCsvLinePerRowWithEscaping() throws Exception {
+        ExportServiceImpl exportService = exportServiceWithUsers();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(ExportService.Format.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(3, lines.length);
+        assertEquals("id,username,email,firstName,lastName,enabled,createdAt,updatedAt,roles", lines[0]);
+        assertTrue(lines[2].startsWith("2,jsmith,j@example.com,John,\"Smith, Jr.\",true,"));
+    }
+
+    @Test
+    void exportUsersShouldWriteOneJsonObjectPerLine() throws Exception {
+        ExportServiceImpl exportService = exportServiceWithUsers();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(ExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("admin", new ObjectMapper().readTree(lines[0]).get("username").asText());
+        assertEquals("ROLE_ADMIN,ROLE_USER", new ObjectMapper().readTree(lines[0]).get("roles").asText());
+    }
+
+    private ExportServiceImpl exportServiceWithUsers() throws Exception {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:export-" + System.nanoTime() + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, username VARCHAR(50), email VARCHAR(100), "
+                    + "first_name VARCHAR(50), last_name VARCHAR(50), enabled BOOLEAN, "
+                    + "created_at TIMESTAMP WITH TIME ZONE, updated_at TIMESTAMP WITH TIME ZONE)");
+            statement.execute("CREATE TABLE roles (id BIGINT PRIMARY KEY, name VARCHAR(50))");
+            statement.execute("CREATE TABLE user_roles (user_id BIGINT, role_id BIGINT)");
+            statement.execute("INSERT INTO users VALUES (1, 'admin', 'admin@example.com', 'Admin', 'User', TRUE, NULL, NULL)");
+            statement.execute("INSERT INTO users VALUES (2, 'jsmith', 'j@example.com', 'John', 'Smith, Jr.', TRUE, NULL, NULL)");
+            statement.execute("INSERT INTO roles VALUES (1, 'ROLE_USER'), (2, 'ROLE_ADMIN')");
+            statement.execute("INSERT INTO user_roles VALUES (1, 1), (1, 2)");
+        }
+        return new ExportServiceImpl(dataSource, new DataSourceTransactionManager(dataSource), new ObjectMapper(), 100);
+    }
+}
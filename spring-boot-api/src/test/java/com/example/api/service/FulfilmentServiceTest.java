@@ -0,0 +1,100 @@
+package com.example.api.service;
+
+import com.example.api.model.Money;
+import com.example.api.model.Order;
+import com.example.api.repository.OrderRepository;
+import com.example.api.service.impl.FulfilmentServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class FulfilmentServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private FulfilmentServiceImpl fulfilmentService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        fulfilmentService = new FulfilmentServiceImpl(orderRepository, salesRollupService, outboxService, transactionManager,
+                meterRegistry, false, 1, 2, Duration.ofSeconds(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void processNextBatchShouldAdvanceClaimedOrdersInBulk() {
+        Order first = order(1L);
+        Order second = order(2L);
+        SalesRollupService.Snapshot snapshot = new SalesRollupService.Snapshot(
+                LocalDate.of(2024, 3, 1), "PENDING", Money.of(new BigDecimal("10.00")), 1, Map.of());
+        when(orderRepository.lockPendingIds(2)).thenReturn(List.of(1L, 2L));
+        when(orderRepository.findWithItemsByIdIn(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(salesRollupService.snapshot(any(Order.class))).thenReturn(snapshot);
+        when(orderRepository.updateStatus(any(), any(), any(), any())).thenReturn(2);
+
+        int advanced = fulfilmentService.processNextBatch();
+
+        assertEquals(2, advanced);
+        verify(orderRepository).updateStatus(eq(List.of(1L, 2L)), eq(Order.OrderStatus.PENDING),
+                eq(Order.OrderStatus.PROCESSING), any(Instant.class));
+        ArgumentCaptor<Collection<SalesRollupService.Snapshot>> after = ArgumentCaptor.forClass(Collection.class);
+        verify(salesRollupService).applyAll(anyCollection(), after.capture());
+        after.getValue().forEach(s -> assertEquals("PROCESSING", s.getStatus()));
+        verify(outboxService).publishAll(eq("Order"), eq("OrderStatusChanged"), argThat(payloads -> payloads.size() == 2));
+        assertEquals(2.0, meterRegistry.get("fulfilment.orders.processed").counter().count());
+        assertEquals(2, meterRegistry.get("fulfilment.lag").timer().count());
+    }
+
+    @Test
+    void processNextBatchShouldDoNothingWhenNoOrdersArePending() {
+        when(orderRepository.lockPendingIds(2)).thenReturn(List.of());
+
+        assertEquals(0, fulfilmentService.processNextBatch());
+        verify(orderRepository, never()).updateStatus(any(), any(), any(), any());
+        verify(salesRollupService, never()).applyAll(anyCollection(), anyCollection());
+    }
+
+    private static Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("10.00"));
+        order.setCreatedAt(Instant.now().minusSeconds(30));
+        return order;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.api.service;
+
+import com.example.api.dto.OrderItemDto;
+import com.example.api.exception.IdempotencyKeyMismatchException;
+import com.example.api.model.IdempotencyRecord;
+import com.example.api.repository.IdempotencyRecordRepository;
+import com.example.api.service.impl.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+public class IdempotencyServiceTest {
+
+    private static final String SCOPE = "POST /api/order-items";
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private IdempotencyServiceImpl idempotencyService;
+    private AtomicInteger executions;
+    private Map<String, Object> request;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(idempotencyRecordRepository, transactionManager,
+                objectMapper, new SimpleMeterRegistry(), Duration.ofHours(24), Duration.ofSeconds(5), 100);
+        executions = new AtomicInteger();
+        request = Map.of("orderId", 1, "productId", 2, "quantity", 3);
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(idempotencyRecordRepository.insertIfAbsent(anyString(), anyString(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    void retryShouldReplayStoredResponseWithoutRunningActionAgain() {
+        ResponseEntity<OrderItemDto> first = execute("key-1", request);
+        ResponseEntity<OrderItemDto> retry = execute("key-1", request);
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(idempotencyRecordRepository, times(1)).complete(anyString(), eq(201), anyString());
+    }
+
+    @Test
+    void requestsWithoutKeyShouldAlwaysRun() {
+        execute(null, request);
+        execute(null, request);
+
+        assertEquals(2, executions.get());
+        verify(idempotencyRecordRepository, never()).insertIfAbsent(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void reusingKeyWithDifferentBodyShouldBeRejected() {
+        execute("key-1", request);
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> execute("key-1", Map.of("orderId", 1, "productId", 2, "quantity", 4)));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void storedResponseShouldBeReplayedFromDatabase() throws Exception {
+        OrderItemDto stored = OrderItemDto.builder().id(42L).orderId(1L).productId(2L).quantity(3).build();
+        when(idempotencyRecordRepository.findById(anyString())).thenReturn(Optional.of(IdempotencyRecord.builder()
+                .requestHash(digestOf(request))
+                .statusCode(201)
+                .responseBody(objectMapper.writeValueAsString(stored))
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build()));
+
+        ResponseEntity<OrderItemDto> response = execute("key-1", request);
+
+        assertEquals(0, executions.get());
+        assertEquals(42L, response.getBody().getId());
+        verify(idempotencyRecordRepository, never()).insertIfAbsent(anyString(), anyString(), any(), any());
+    }
+
+    @Test
+    void failedActionShouldReleaseKey() {
+        assertThrows(IllegalStateException.class, () -> idempotencyService.execute("key-1", SCOPE, request,
+                OrderItemDto.class, () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        verify(idempotencyRecordRepository).release(anyString());
+        verify(idempotencyRecordRepository, never()).complete(anyString(), anyInt(), anyString());
+    }
+
+    @Test
+    void concurrentDuplicatesShouldCollapseIntoOneExecution() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<ResponseEntity<OrderItemDto>>> results = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            results.add(executor.submit(() -> idempotencyService.execute("key-1", SCOPE, request,
+                    OrderItemDto.class, () -> {
+                        awaitQuietly(release);
+                        return created();
+                    })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<ResponseEntity<OrderItemDto>> result : results) {
+            assertEquals(7L, result.get(10, TimeUnit.SECONDS).getBody().getId());
+        }
+        executor.shutdown();
+
+        assertEquals(1, executions.get());
+        verify(idempotencyRecordRepository, times(1)).insertIfAbsent(anyString(), anyString(), any(), any());
+    }
+
+    private ResponseEntity<OrderItemDto> execute(String key, Object body) {
+        return idempotencyService.execute(key, SCOPE, body, OrderItemDto.class, this::created);
+    }
+
+    private ResponseEntity<OrderItemDto> created() {
+        executions.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body(OrderItemDto.builder()
+                .id(7L).orderId(1L).productId(2L).quantity(3).price(new BigDecimal("9.99")).build());
+    }
+
+    private String digestOf(Object body) throws Exception {
+        MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+        byte[] hash = messageDigest.digest(objectMapper.writeValueAsBytes(body));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
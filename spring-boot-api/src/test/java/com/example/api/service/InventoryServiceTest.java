@@ -0,0 +1,37 @@
+package com.example.api.service;
+
+import com.example.api.repository.ProductRepository;
+import com.example.api.service.impl.InventoryServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class InventoryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @InjectMocks
+    private InventoryServiceImpl inventoryService;
+
+    @Test
+    void nonPositiveQuantitiesShouldBeRejectedBeforeAnyProductIsTouched() {
+        Map<Long, Integer> withNull = new HashMap<>();
+        withNull.put(1L, 2);
+        withNull.put(2L, null);
+
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reserve(Map.of(1L, 2, 2L, -5)));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.reserve(withNull));
+        assertThrows(IllegalArgumentException.class, () -> inventoryService.release(Map.of(1L, 0)));
+        verifyNoInteractions(productRepository);
+    }
+}
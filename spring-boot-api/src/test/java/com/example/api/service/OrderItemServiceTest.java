@@ -0,0 +1,183 @@
+package com.example.api.service;
+
+import com.example.api.dto.OrderItemDto;
+import com.example.api.model.Order;
+import com.example.api.model.OrderItem;
+import com.example.api.model.Product;
+import com.example.api.repository.OrderItemRepository;
+import com.example.api.repository.OrderRepository;
+import com.example.api.repository.ProductRepository;
+import com.example.api.security.OrderLookupCache;
+import com.example.api.service.impl.OrderItemServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderItemServiceTest {
+
+    @Mock
+    private OrderItemRepository orderItemRepository;
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Spy
+    private OrderLookupCache orderLookupCache = new OrderLookupCache();
+
+    @InjectMocks
+    private OrderItemServiceImpl orderItemService;
+
+    private Order order;
+    private Product book;
+    private Product pen;
+
+    @BeforeEach
+    void setUp() {
+        order = new Order();
+        order.setId(5L);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("19.98"));
+        book = product(1L);
+        pen = product(2L);
+    }
+
+    @Test
+    void createOrderItemShouldReserveItsQuantity() {
+        lockOrder();
+        when(productRepository.findById(1L)).thenReturn(Optional.of(book));
+        when(orderItemRepository.save(any(OrderItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        orderItemService.createOrderItem(OrderItemDto.builder()
+                .orderId(5L).productId(1L).quantity(3).price(new BigDecimal("9.99")).build());
+
+        verify(inventoryService).reserve(Map.of(1L, 3));
+        verify(inventoryService, never()).release(any());
+    }
+
+    @Test
+    void updateOrderItemShouldReserveOnlyTheIncrease() {
+        OrderItem item = item(book, 2);
+        lockItemOrder();
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        orderItemService.updateOrderItem(7L, OrderItemDto.builder().quantity(5).build());
+
+        verify(inventoryService).reserve(Map.of(1L, 3));
+        verify(inventoryService, never()).release(any());
+    }
+
+    @Test
+    void updateOrderItemShouldReleaseTheDecrease() {
+        OrderItem item = item(book, 5);
+        lockItemOrder();
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        orderItemService.updateOrderItem(7L, OrderItemDto.builder().quantity(1).build());
+
+        verify(inventoryService).release(Map.of(1L, 4));
+        verify(inventoryService, never()).reserve(any());
+    }
+
+    @Test
+    void changingTheProductShouldMoveTheReservation() {
+        OrderItem item = item(book, 2);
+        lockItemOrder();
+        when(productRepository.findById(2L)).thenReturn(Optional.of(pen));
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        orderItemService.updateOrderItem(7L, OrderItemDto.builder().productId(2L).build());
+
+        verify(inventoryService).release(Map.of(1L, 2));
+        verify(inventoryService).reserve(Map.of(2L, 2));
+    }
+
+    @Test
+    void deleteOrderItemShouldReleaseItsQuantity() {
+        OrderItem item = item(book, 2);
+        lockItemOrder();
+
+        orderItemService.deleteOrderItem(7L);
+
+        verify(inventoryService).release(Map.of(1L, 2));
+    }
+
+    @Test
+    void itemEditsOnCancelledOrdersShouldNotTouchStock() {
+        order.setStatus(Order.OrderStatus.CANCELLED);
+        OrderItem item = item(book, 2);
+        lockItemOrder();
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        orderItemService.updateOrderItem(7L, OrderItemDto.builder().quantity(9).build());
+        orderItemService.deleteOrderItem(7L);
+
+        verifyNoInteractions(inventoryService);
+    }
+
+    @Test
+    void itemWritesShouldLockTheOrderBeforeReadingIt() {
+        OrderItem item = item(book, 2);
+        lockItemOrder();
+        when(orderItemRepository.save(item)).thenReturn(item);
+
+        orderItemService.updateOrderItem(7L, OrderItemDto.builder().quantity(3).build());
+
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).lockById(5L);
+        inOrder.verify(orderRepository).findWithItemsById(5L);
+        verify(orderItemRepository, never()).findById(any());
+    }
+
+    private void lockItemOrder() {
+        when(orderItemRepository.findOrderIdById(7L)).thenReturn(Optional.of(5L));
+        lockOrder();
+    }
+
+    private void lockOrder() {
+        when(orderRepository.lockById(5L)).thenReturn(Optional.of(5L));
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(order));
+    }
+
+    private OrderItem item(Product product, int quantity) {
+        OrderItem item = new OrderItem();
+        item.setId(7L);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPrice(new BigDecimal("9.99"));
+        order.addOrderItem(item);
+        return item;
+    }
+
+    private Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal("9.99"));
+        return product;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.api.service;
+
+import com.example.api.dto.OrderDto;
+import com.example.api.dto.OrderItemDto;
+import com.example.api.event.OutboxEvent;
+import com.example.api.model.Order;
+import com.example.api.model.OrderItem;
+import com.example.api.model.Product;
+import com.example.api.model.User;
+import com.example.api.repository.OrderRepository;
+import com.example.api.repository.ProductRepository;
+import com.example.api.repository.UserRepository;
+import com.example.api.security.OrderLookupCache;
+import com.example.api.service.impl.OrderServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OrderServiceTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SalesRollupService salesRollupService;
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @Spy
+    private OrderLookupCache orderLookupCache = new OrderLookupCache();
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private User user;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setId(1L);
+        user.setUsername("testuser");
+
+        products = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            Product product = new Product();
+            product.setId(id);
+            product.setName("Product " + id);
+            product.setPrice(new BigDecimal("9.99"));
+            products.add(product);
+        }
+    }
+
+    @Test
+    void createOrderShouldResolveProductsInOneQueryAndSaveOnce() {
+        List<OrderItemDto> items = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            items.add(OrderItemDto.builder().productId(id).quantity(1).price(new BigDecimal("9.99")).build());
+        }
+        OrderDto orderDto = OrderDto.builder()
+                .userId(1L)
+                .totalAmount(new BigDecimal("1998.00"))
+                .orderItems(items)
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(products);
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            order.setId(10L);
+            return order;
+        });
+
+        OrderDto result = orderService.createOrder(orderDto);
+
+        assertEquals(10L, result.getId());
+        assertEquals(200, result.getOrderItems().size());
+        assertEquals("Product 200", result.getOrderItems().get(199).getProductName());
+        assertEquals(10L, result.getOrderItems().get(0).getOrderId());
+
+        // One user lookup, one product lookup and one save, independent of the number of lines
+        verify(productRepository, times(1)).findAllById(any());
+        verify(productRepository, never()).findById(anyLong());
+        verify(orderRepository, times(1)).save(any(Order.class));
+        verify(orderRepository, never()).findById(anyLong());
+        verify(inventoryService, times(1)).reserve(any());
+        verify(outboxService).publish(eq("Order"), any(), eq("OrderCreated"), eq(result));
+    }
+
+    @Test
+    void createOrderShouldFailWhenProductDoesNotExist() {
+        OrderDto orderDto = OrderDto.builder()
+                .userId(1L)
+                .totalAmount(new BigDecimal("9.99"))
+                .orderItems(List.of(OrderItemDto.builder().productId(999L).quantity(1).price(new BigDecimal("9.99")).build()))
+                .build();
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(productRepository.findAllById(any())).thenReturn(List.of());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> orderService.createOrder(orderDto));
+
+        assertEquals("Product not found with id: 999", exception.getMessage());
+        verify(orderRepository, never()).save(any(Order.class));
+    }
+
+    @Test
+    void getAllOrdersPagedShouldFetchIdPageThenOrdersInOneQuery() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(orderRepository.findIds(pageable)).thenReturn(new PageImpl<>(List.of(7L, 3L), pageable, 5));
+        when(orderRepository.findWithItemsByIdIn(List.of(7L, 3L))).thenReturn(List.of(order(3L), order(7L)));
+
+        Page<OrderDto> page = orderService.getAllOrders(pageable);
+
+        assertEquals(5, page.getTotalElements());
+        assertEquals(List.of(7L, 3L), page.map(OrderDto::getId).getContent());
+        verify(orderRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void updateOrderStatusShouldReleaseStockWhenCancelling() {
+        Order order = order(5L);
+        Product product = products.get(0);
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setQuantity(3);
+        item.setPrice(new BigDecimal("9.99"));
+        order.addOrderItem(item);
+        when(orderRepository.lockById(5L)).thenReturn(Optional.of(5L));
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(order));
+        when(orderRepository.save(order)).thenReturn(order);
+
+        orderService.updateOrderStatus(5L, Order.OrderStatus.CANCELLED);
+
+        // The row lock is taken before the status is read
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).lockById(5L);
+        inOrder.verify(orderRepository).findWithItemsById(5L);
+
+        verify(inventoryService).release(Map.of(product.getId(), 3));
+        verify(inventoryService, never()).reserve(any());
+    }
+
+    @Test
+    void getOrderByIdShouldFallBackToArchive() {
+        OrderDto archived = OrderDto.builder().id(9L).userId(1L).status("DELIVERED").build();
+        when(orderRepository.findWithItemsById(9L)).thenReturn(Optional.empty());
+        when(orderArchiveService.findArchivedOrder(9L)).thenReturn(Optional.of(archived));
+
+        assertEquals(Optional.of(archived), orderService.getOrderById(9L));
+    }
+
+    @Test
+    void getOrderByIdShouldNotReadArchiveForLiveOrders() {
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(order(5L)));
+
+        assertEquals(5L, orderService.getOrderById(5L).orElseThrow().getId());
+        verify(orderArchiveService, never()).findArchivedOrder(any());
+    }
+
+    @Test
+    void deleteOrderShouldRecordTombstoneOnlyWhenArchivedOrderExisted() {
+        when(orderRepository.lockById(anyLong())).thenReturn(Optional.empty());
+        when(orderArchiveService.deleteArchivedOrder(9L)).thenReturn(true);
+        when(orderArchiveService.deleteArchivedOrder(10L)).thenReturn(false);
+
+        orderService.deleteOrder(9L);
+        orderService.deleteOrder(10L);
+
+        verify(changeFeedService).recordDeletion(OutboxEvent.ORDER, 9L);
+        verify(changeFeedService, never()).recordDeletion(OutboxEvent.ORDER, 10L);
+    }
+
+    @Test
+    void deleteOrderShouldReturnStockOnlyForUnshippedOrders() {
+        Order open = order(5L);
+        OrderItem item = new OrderItem();
+        item.setProduct(products.get(0));
+        item.setQuantity(3);
+        item.setPrice(new BigDecimal("9.99"));
+        open.addOrderItem(item);
+        Order cancelled = order(6L);
+        cancelled.setStatus(Order.OrderStatus.CANCELLED);
+        Order delivered = order(7L);
+        delivered.setStatus(Order.OrderStatus.DELIVERED);
+        OrderItem shipped = new OrderItem();
+        shipped.setProduct(products.get(1));
+        shipped.setQuantity(4);
+        shipped.setPrice(new BigDecimal("9.99"));
+        delivered.addOrderItem(shipped);
+        when(orderRepository.lockById(anyLong())).thenAnswer(invocation -> Optional.of(invocation.getArgument(0)));
+        when(orderRepository.findWithItemsById(5L)).thenReturn(Optional.of(open));
+        when(orderRepository.findWithItemsById(6L)).thenReturn(Optional.of(cancelled));
+        when(orderRepository.findWithItemsById(7L)).thenReturn(Optional.of(delivered));
+
+        orderService.deleteOrder(5L);
+        orderService.deleteOrder(6L);
+        orderService.deleteOrder(7L);
+
+        verify(inventoryService, times(1)).release(any());
+        verify(inventoryService).release(Map.of(products.get(0).getId(), 3));
+    }
+
+    private Order order(Long id) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("9.99"));
+        return order;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.api.service;
+
+import com.example.api.dto.CursorPage;
+import com.example.api.dto.CursorRequest;
+import com.example.api.dto.ProductDto;
+import com.example.api.event.OutboxEvent;
+import com.example.api.exception.InvalidCursorException;
+import com.example.api.model.Product;
+import com.example.api.repository.ProductRepository;
+import com.example.api.service.impl.ProductServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ChangeFeedService changeFeedService;
+
+    @InjectMocks
+    private ProductServiceImpl productService;
+
+    @Test
+    void getProductsShouldReturnCursorThatSeeksPastLastRow() {
+        Sort sort = Sort.by(Sort.Direction.ASC, "price").and(Sort.by(Sort.Direction.ASC, "id"));
+        Window<Product> firstWindow = Window.from(List.of(product(1L, "5.00"), product(2L, "7.50")),
+                index -> ScrollPosition.forward(Map.of("price", new BigDecimal(index == 0 ? "5.00" : "7.50"),
+                        "id", index == 0 ? 1L : 2L)),
+                true);
+        when(productRepository.findAllBy(eq(ScrollPosition.keyset()), eq(sort), eq(Limit.of(2))))
+                .thenReturn(firstWindow);
+
+        CursorPage<ProductDto> firstPage = productService.getProducts(
+                CursorRequest.builder().size(2).sort("price").build());
+
+        assertTrue(firstPage.isHasNext());
+        assertNotNull(firstPage.getNextCursor());
+        assertNull(firstPage.getTotalElements());
+        verify(productRepository, never()).count();
+
+        ArgumentCaptor<ScrollPosition> position = ArgumentCaptor.forClass(ScrollPosition.class);
+        when(productRepository.findAllBy(position.capture(), eq(sort), eq(Limit.of(2))))
+                .thenReturn(Window.from(List.of(), index -> ScrollPosition.keyset()));
+
+        productService.getProducts(CursorRequest.builder().size(2).sort("price").cursor(firstPage.getNextCursor()).build());
+
+        KeysetScrollPosition keyset = (KeysetScrollPosition) position.getValue();
+        assertEquals(new BigDecimal("7.50"), keyset.getKeys().get("price"));
+        assertEquals(2L, keyset.getKeys().get("id"));
+    }
+
+    @Test
+    void getProductsShouldCountOnlyWhenTotalRequested() {
+        when(productRepository.findAllBy(any(), any(), any()))
+                .thenReturn(Window.from(List.of(product(1L, "5.00")), index -> ScrollPosition.keyset()));
+        when(productRepository.count()).thenReturn(1L);
+
+        CursorPage<ProductDto> page = productService.getProducts(CursorRequest.builder().withTotal(true).build());
+
+        assertEquals(1L, page.getTotalElements());
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getProductsShouldRejectCursorFromDifferentSort() {
+        Window<Product> window = Window.from(List.of(product(1L, "5.00")),
+                index -> ScrollPosition.forward(Map.of("price", new BigDecimal("5.00"), "id", 1L)), true);
+        when(productRepository.findAllBy(any(), any(), any())).thenReturn(window);
+        String cursor = productService.getProducts(CursorRequest.builder().size(1).sort("price").build()).getNextCursor();
+
+        assertThrows(InvalidCursorException.class, () -> productService.getProducts(
+                CursorRequest.builder().size(1).sort("name").cursor(cursor).build()));
+        assertThrows(InvalidCursorException.class, () -> productService.getProducts(
+                CursorRequest.builder().cursor("not-a-cursor").build()));
+    }
+
+    @Test
+    void deleteProductShouldRecordTombstone() {
+        Product product = product(4L, "3.00");
+        when(productRepository.findById(4L)).thenReturn(Optional.of(product));
+
+        productService.deleteProduct(4L);
+
+        verify(productRepository).delete(product);
+        verify(changeFeedService).recordDeletion(OutboxEvent.PRODUCT, 4L);
+    }
+
+    private Product product(Long id, String price) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("Product " + id);
+        product.setPrice(new BigDecimal(price));
+        product.setActive(true);
+        return product;
+    }
+}
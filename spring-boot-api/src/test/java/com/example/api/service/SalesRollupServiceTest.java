@@ -0,0 +1,98 @@
+package com.example.api.service;
+
+import com.example.api.model.Money;
+import com.example.api.model.Order;
+import com.example.api.model.OrderItem;
+import com.example.api.model.Product;
+import com.example.api.service.impl.SalesRollupServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class SalesRollupServiceTest {
+
+    @Mock
+    private DataSource dataSource;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SalesRollupServiceImpl salesRollupService;
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        salesRollupService = new SalesRollupServiceImpl(dataSource, transactionManager, 8);
+
+        order = new Order();
+        order.setId(1L);
+        order.setStatus(Order.OrderStatus.PENDING);
+        order.setTotalAmount(new BigDecimal("35.00"));
+        order.setCreatedAt(Instant.parse("2024-03-01T23:30:00Z"));
+        order.addOrderItem(item("BOOKS", "10.00", 2));
+        order.addOrderItem(item("BOOKS", "5.00", 1));
+        order.addOrderItem(item(null, "10.00", 1));
+    }
+
+    @Test
+    void snapshotShouldGroupLinesByCategory() {
+        SalesRollupService.Snapshot snapshot = salesRollupService.snapshot(order);
+
+        assertEquals(LocalDate.of(2024, 3, 1), snapshot.getDay());
+        assertEquals(4, snapshot.getUnits());
+        assertEquals(Money.of(new BigDecimal("25.00")), snapshot.getCategories().get("BOOKS").getRevenue());
+        assertEquals(3, snapshot.getCategories().get("BOOKS").getUnits());
+        assertEquals(Money.of(new BigDecimal("10.00")), snapshot.getCategories().get("").getRevenue());
+    }
+
+    @Test
+    void snapshotShouldLeaveCancelledOrdersOutOfCategories() {
+        order.setStatus(Order.OrderStatus.CANCELLED);
+
+        SalesRollupService.Snapshot snapshot = salesRollupService.snapshot(order);
+
+        assertEquals("CANCELLED", snapshot.getStatus());
+        assertTrue(snapshot.getCategories().isEmpty());
+    }
+
+    @Test
+    void snapshotShouldRoundAmountsLikeTheDecimalColumns() {
+        order.setTotalAmount(new BigDecimal("10.999"));
+        order.getOrderItems().get(0).setPrice(new BigDecimal("10.005"));
+
+        SalesRollupService.Snapshot snapshot = salesRollupService.snapshot(order);
+
+        assertEquals(Money.of(new BigDecimal("11.00")), snapshot.getTotalAmount());
+        assertEquals(Money.of(new BigDecimal("25.02")), snapshot.getCategories().get("BOOKS").getRevenue());
+    }
+
+    @Test
+    void applyShouldWriteNothingWhenSnapshotsAreEqual() {
+        salesRollupService.apply(salesRollupService.snapshot(order), salesRollupService.snapshot(order));
+
+        verifyNoInteractions(dataSource);
+    }
+
+    private OrderItem item(String category, String price, int quantity) {
+        Product product = new Product();
+        product.setCategory(category);
+
+        OrderItem item = new OrderItem();
+        item.setProduct(product);
+        item.setPrice(new BigDecimal(price));
+        item.setQuantity(quantity);
+        return item;
+    }
+}
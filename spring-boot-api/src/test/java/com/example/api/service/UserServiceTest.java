@@ -1,19 +1,23 @@
 package com.example.api.service;
 
 import com.example.api.dto.UserDto;
+import com.example.api.event.UserAccountChangedEvent;
 import com.example.api.model.User;
 import com.example.api.repository.UserRepository;
 import com.example.api.service.impl.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -28,6 +32,12 @@ public class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -91,6 +101,18 @@ public class UserServiceTest {
         verify(userRepository, times(1)).save(any(User.class));
     }
 
+    @Test
+    void updateUserShouldInvalidateOldAndNewUsernames() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        userService.updateUser(1L, UserDto.builder().username("renamed").build());
+
+        ArgumentCaptor<UserAccountChangedEvent> event = ArgumentCaptor.forClass(UserAccountChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of("testuser", "renamed"), event.getValue().getUsernames());
+    }
+
     @Test
     void existsByUsernameShouldReturnTrueWhenUsernameExists() {
         when(userRepository.existsByUsername("testuser")).thenReturn(true);